@@ -21,11 +21,13 @@ import world.bentobox.biomes.handlers.BiomeDataRequestHandler;
 import world.bentobox.biomes.handlers.BiomeListRequestHandler;
 import world.bentobox.biomes.handlers.ChangeBiomeRequestHandler;
 import world.bentobox.biomes.listeners.ChangeOwnerListener;
+import world.bentobox.biomes.listeners.ChunkLoadListener;
 import world.bentobox.biomes.listeners.IslandLevelListener;
 import world.bentobox.biomes.listeners.JoinLeaveListener;
 import world.bentobox.biomes.managers.BiomesAddonManager;
 import world.bentobox.biomes.managers.BiomesImportManager;
 import world.bentobox.biomes.tasks.UpdateQueue;
+import world.bentobox.biomes.utils.Utils;
 import world.bentobox.biomes.web.WebManager;
 import world.bentobox.greenhouses.Greenhouses;
 import world.bentobox.level.Level;
@@ -97,6 +99,7 @@ public class BiomesAddon extends Addon
         this.registerListener(new ChangeOwnerListener(this));
         this.registerListener(new JoinLeaveListener(this));
         this.registerListener(new IslandLevelListener(this));
+        this.registerListener(new ChunkLoadListener(this));
 
         // Register Flags
         this.registerFlag(BIOMES_WORLD_PROTECTION);
@@ -206,6 +209,12 @@ public class BiomesAddon extends Addon
         if (this.hooked)
         {
             this.biomeUpdateQueue = new UpdateQueue(this);
+            this.biomeUpdateQueue.resumeTasks();
+
+            if (this.settings.isIslandCacheWarmUp())
+            {
+                this.addonManager.warmUpIslandData();
+            }
         }
     }
 
@@ -239,9 +248,16 @@ public class BiomesAddon extends Addon
         {
             if (this.biomeUpdateQueue != null)
             {
-                this.biomeUpdateQueue.getTask().cancel();
+                this.biomeUpdateQueue.shutdown();
             }
 
+            // Island data saves are delayed, so they must be written before addon is disabled.
+            this.addonManager.flushIslandData();
+            this.addonManager.shutdown();
+
+            // Static caches would survive addon reload.
+            Utils.clearPermissionCache();
+
             this.getLogger().info("Biomes addon disabled.");
         }
     }
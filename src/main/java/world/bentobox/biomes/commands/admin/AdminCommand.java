@@ -16,17 +16,20 @@ import org.bukkit.Bukkit;
 import world.bentobox.bentobox.api.addons.Addon;
 import world.bentobox.bentobox.api.commands.CompositeCommand;
 import world.bentobox.bentobox.api.commands.ConfirmableCommand;
+import world.bentobox.bentobox.api.localization.TextVariables;
 import world.bentobox.bentobox.api.user.User;
 import world.bentobox.bentobox.database.objects.Island;
 import world.bentobox.bentobox.util.Util;
 import world.bentobox.biomes.BiomesAddon;
 import world.bentobox.biomes.commands.BiomesCompositeCommand;
 import world.bentobox.biomes.config.Settings;
-import world.bentobox.biomes.database.objects.BiomesIslandDataObject;
 import world.bentobox.biomes.database.objects.BiomesObject;
 import world.bentobox.biomes.managers.BiomesAddonManager;
 import world.bentobox.biomes.panels.admin.AdminPanel;
 import world.bentobox.biomes.tasks.BiomeUpdateHelper;
+import world.bentobox.biomes.tasks.BiomeUpdateTask;
+import world.bentobox.biomes.tasks.ConcurrencyController;
+import world.bentobox.biomes.tasks.UpdateQueue;
 import world.bentobox.biomes.utils.Constants;
 import world.bentobox.biomes.utils.Utils;
 
@@ -77,6 +80,9 @@ public class AdminCommand extends BiomesCompositeCommand
         new BiomesUnlockCommand(this.getAddon(), this);
 
         new BiomesClearQueueCommand(this.getAddon(), this);
+        new BiomesQueueStatusCommand(this.getAddon(), this);
+        new BiomesCancelCommand(this.getAddon(), this);
+        new BiomesUndoCommand(this.getAddon(), this);
     }
 
 
@@ -200,23 +206,29 @@ public class AdminCommand extends BiomesCompositeCommand
             }
             else
             {
-                // Use BiomeUpdateHelper to change biome for user.
-
-                BiomeUpdateHelper helper = new BiomeUpdateHelper(this.getAddon(),
-                    user,
-                    target == null ? user : target,
-                    biome,
-                    this.<BiomesAddon>getAddon().getAddonManager().getIslandData(this.getWorld(), target),
-                    this.getWorld(),
-                    updateMode,
-                    size,
-                    false);
-
-                if (helper.canChangeBiome())
-                {
-                    helper.updateIslandBiome();
-                    return true;
-                }
+                // Island data may be loaded asynchronously.
+                this.<BiomesAddon>getAddon().getAddonManager().requestIslandData(this.getWorld(), target).
+                    thenAccept(islandData ->
+                    {
+                        // Use BiomeUpdateHelper to change biome for user.
+
+                        BiomeUpdateHelper helper = new BiomeUpdateHelper(this.getAddon(),
+                            user,
+                            target == null ? user : target,
+                            biome,
+                            islandData,
+                            this.getWorld(),
+                            updateMode,
+                            size,
+                            false);
+
+                        if (helper.canChangeBiome())
+                        {
+                            helper.updateIslandBiome();
+                        }
+                    });
+
+                return true;
             }
             return false;
         }
@@ -461,40 +473,47 @@ public class AdminCommand extends BiomesCompositeCommand
 
             BiomesAddonManager addonManager = this.<BiomesAddon>getAddon().getAddonManager();
             Island island = this.getIslands().getIsland(this.getWorld(), target);
-            BiomesIslandDataObject islandData = addonManager.getIslandData(island);
 
             if (target == null || biome == null)
             {
                 // Show help if something fails.
                 this.showHelp(this, user);
             }
-            else if (island == null || islandData == null)
+            else if (island == null)
             {
                 Utils.sendMessage(user, user.getTranslation("general.errors.no-island"));
             }
             else
             {
-                if (islandData.isUnlocked(biome))
+                // Island data may be loaded asynchronously.
+                addonManager.requestIslandData(island).thenAccept(islandData ->
                 {
-                    if (buy && !addonManager.isPurchased(islandData, biome))
+                    if (islandData == null)
                     {
-                        addonManager.purchaseBiome(user, island, islandData, biome, false);
+                        Utils.sendMessage(user, user.getTranslation("general.errors.no-island"));
                     }
-                    else
+                    else if (islandData.isUnlocked(biome))
                     {
-                        Utils.sendMessage(user, user.getTranslation(Constants.MESSAGES + "biome-already-unlocked",
-                            "[biome]", biome.getFriendlyName()));
+                        if (buy && !addonManager.isPurchased(islandData, biome))
+                        {
+                            addonManager.purchaseBiome(user, island, islandData, biome, false);
+                        }
+                        else
+                        {
+                            Utils.sendMessage(user, user.getTranslation(Constants.MESSAGES + "biome-already-unlocked",
+                                "[biome]", biome.getFriendlyName()));
+                        }
                     }
-                }
-                else
-                {
-                    addonManager.unlockBiome(islandData, user, island, biome);
-
-                    if (buy)
+                    else
                     {
-                        addonManager.purchaseBiome(user, island, islandData, biome, false);
+                        addonManager.unlockBiome(islandData, user, island, biome);
+
+                        if (buy)
+                        {
+                            addonManager.purchaseBiome(user, island, islandData, biome, false);
+                        }
                     }
-                }
+                });
 
                 return true;
             }
@@ -590,6 +609,285 @@ public class AdminCommand extends BiomesCompositeCommand
     }
 
 
+    /**
+     * This subclass shows biome update queue and adaptive concurrency state.
+     */
+    private static class BiomesQueueStatusCommand extends CompositeCommand
+    {
+        /**
+         * Instantiates a new queue status command.
+         *
+         * @param addon - addon
+         * @param cmd - command
+         */
+        public BiomesQueueStatusCommand(Addon addon, CompositeCommand cmd)
+        {
+            super(addon, cmd, "status");
+        }
+
+
+        /**
+         * Execute command.
+         *
+         * @param user the user
+         * @param label the command top label
+         * @param args the args
+         * @return always true.
+         */
+        @Override
+        public boolean execute(User user, String label, List<String> args)
+        {
+            BiomesAddon addon = this.getAddon();
+            UpdateQueue updateQueue = addon.getUpdateQueue();
+
+            if (updateQueue == null)
+            {
+                return true;
+            }
+
+            ConcurrencyController controller = updateQueue.getController();
+            boolean adaptive = addon.getSettings().isAdaptiveConcurrency() &&
+                addon.getSettings().getUpdateTickBudget() > 0;
+
+            Utils.sendMessage(user, user.getTranslation(Constants.MESSAGES + "queue-status",
+                "[mode]", adaptive ? "adaptive" : "fixed",
+                "[tick-time]", String.format("%.2f", controller.getTickTime()),
+                "[target]", String.valueOf(addon.getSettings().getTargetMspt()),
+                "[tasks]", String.valueOf(adaptive ?
+                    controller.getConcurrentTasks() : addon.getSettings().getConcurrentBiomeUpdates()),
+                "[budget]", String.valueOf(adaptive ?
+                    controller.getTickBudget() : addon.getSettings().getUpdateTickBudget()),
+                "[chunk-time]", String.format("%.3f", controller.getChunkTime()),
+                "[running]", String.valueOf(updateQueue.getProcessStartMap().size()),
+                "[queued]", String.valueOf(updateQueue.getProcessQueue().size()),
+                "[pending]", String.valueOf(updateQueue.getPendingChanges().size()),
+                "[queue-time]", String.valueOf(updateQueue.getQueueTime())));
+
+            updateQueue.getProgress().stream().
+                filter(progress -> progress.state() == BiomeUpdateTask.State.RUNNING).
+                forEach(progress -> Utils.sendMessage(user,
+                    user.getTranslation(Constants.MESSAGES + "task-progress",
+                        "[biome]", progress.biomeId(),
+                        "[done]", String.valueOf(progress.processedChunks()),
+                        "[total]", String.valueOf(progress.totalChunks()),
+                        "[percentage]", String.valueOf(progress.getPercentage()),
+                        "[rate]", String.format("%.1f", progress.chunksPerSecond()),
+                        "[time]", String.valueOf(progress.estimatedTime()),
+                        "[max-time]", String.valueOf(progress.estimatedMaxTime()))));
+
+            return true;
+        }
+
+
+        /**
+         * Sets command settings.
+         */
+        @Override
+        public void setup()
+        {
+            this.inheritPermission();
+            this.setParametersHelp(Constants.ADMIN_COMMANDS + "status.parameters");
+            this.setDescription(Constants.ADMIN_COMMANDS + "status.description");
+        }
+    }
+
+
+    /**
+     * This subclass cancels queued and running biome changes on player island.
+     */
+    private static class BiomesCancelCommand extends CompositeCommand
+    {
+        /**
+         * Instantiates a new cancel command.
+         *
+         * @param addon - addon
+         * @param cmd - command
+         */
+        public BiomesCancelCommand(Addon addon, CompositeCommand cmd)
+        {
+            super(addon, cmd, "cancel");
+        }
+
+
+        /**
+         * Execute command.
+         *
+         * @param user the user
+         * @param label the command top label
+         * @param args the args
+         * @return true if command was executed.
+         */
+        @Override
+        public boolean execute(User user, String label, List<String> args)
+        {
+            if (args.size() != 1)
+            {
+                this.showHelp(this, user);
+                return false;
+            }
+
+            User target = this.getAddon().getPlayers().getUser(args.get(0));
+
+            if (target == null)
+            {
+                Utils.sendMessage(user, user.getTranslation("general.errors.unknown-player",
+                    TextVariables.NAME, args.get(0)));
+                return false;
+            }
+
+            Island island = this.getIslands().getIsland(this.getWorld(), target);
+
+            if (island == null)
+            {
+                Utils.sendMessage(user, user.getTranslation("general.errors.no-island"));
+                return false;
+            }
+
+            int cancelled = this.<BiomesAddon>getAddon().getUpdateQueue().cancelIslandTasks(island.getUniqueId());
+
+            Utils.sendMessage(user, user.getTranslation(Constants.MESSAGES + "tasks-cancelled",
+                TextVariables.NUMBER, String.valueOf(cancelled)));
+            return true;
+        }
+
+
+        /**
+         * Tab complete optional.
+         *
+         * @param user the user
+         * @param alias the alias
+         * @param args the args
+         * @return the optional
+         */
+        @Override
+        public Optional<List<String>> tabComplete(User user, String alias, List<String> args)
+        {
+            String lastString = args.get(args.size() - 1);
+            final List<String> returnList = new ArrayList<>();
+
+            if (args.size() == 3)
+            {
+                // Create suggestions with all player names that is available for users.
+                Bukkit.getOnlinePlayers().forEach(player -> returnList.add(player.getName()));
+            }
+            else
+            {
+                returnList.add("help");
+            }
+
+            return Optional.of(Util.tabLimit(returnList, lastString));
+        }
+
+
+        /**
+         * Sets command settings.
+         */
+        @Override
+        public void setup()
+        {
+            this.inheritPermission();
+            this.setParametersHelp(Constants.ADMIN_COMMANDS + "cancel.parameters");
+            this.setDescription(Constants.ADMIN_COMMANDS + "cancel.description");
+        }
+    }
+
+
+    /**
+     * This subclass reverts the latest biome change on player island.
+     */
+    private static class BiomesUndoCommand extends CompositeCommand
+    {
+        /**
+         * Instantiates a new undo command.
+         *
+         * @param addon - addon
+         * @param cmd - command
+         */
+        public BiomesUndoCommand(Addon addon, CompositeCommand cmd)
+        {
+            super(addon, cmd, "undo");
+        }
+
+
+        /**
+         * Execute command.
+         *
+         * @param user the user
+         * @param label the command top label
+         * @param args the args
+         * @return true if undo was requested.
+         */
+        @Override
+        public boolean execute(User user, String label, List<String> args)
+        {
+            if (args.size() != 1)
+            {
+                this.showHelp(this, user);
+                return false;
+            }
+
+            User target = this.getAddon().getPlayers().getUser(args.get(0));
+
+            if (target == null)
+            {
+                Utils.sendMessage(user, user.getTranslation("general.errors.unknown-player",
+                    TextVariables.NAME, args.get(0)));
+                return false;
+            }
+
+            Island island = this.getIslands().getIsland(this.getWorld(), target);
+
+            if (island == null)
+            {
+                Utils.sendMessage(user, user.getTranslation("general.errors.no-island"));
+                return false;
+            }
+
+            return this.<BiomesAddon>getAddon().getAddonManager().undoBiomeChange(user, island);
+        }
+
+
+        /**
+         * Tab complete optional.
+         *
+         * @param user the user
+         * @param alias the alias
+         * @param args the args
+         * @return the optional
+         */
+        @Override
+        public Optional<List<String>> tabComplete(User user, String alias, List<String> args)
+        {
+            String lastString = args.get(args.size() - 1);
+            final List<String> returnList = new ArrayList<>();
+
+            if (args.size() == 3)
+            {
+                // Create suggestions with all player names that is available for users.
+                Bukkit.getOnlinePlayers().forEach(player -> returnList.add(player.getName()));
+            }
+            else
+            {
+                returnList.add("help");
+            }
+
+            return Optional.of(Util.tabLimit(returnList, lastString));
+        }
+
+
+        /**
+         * Sets command settings.
+         */
+        @Override
+        public void setup()
+        {
+            this.inheritPermission();
+            this.setParametersHelp(Constants.ADMIN_COMMANDS + "undo.parameters");
+            this.setDescription(Constants.ADMIN_COMMANDS + "undo.description");
+        }
+    }
+
+
 // ---------------------------------------------------------------------
 // Section: Static Variables
 // ---------------------------------------------------------------------
@@ -317,25 +317,31 @@ public class BiomesCommand extends BiomesCompositeCommand
             }
             else
             {
-                // Use BiomeUpdateHelper to change biome for user.
-
-                BiomeUpdateHelper helper = new BiomeUpdateHelper(this.getAddon(),
-                    user,
-                    user,
-                    biome,
-                    this.<BiomesAddon>getAddon().getAddonManager().getIslandData(this.getWorld(), user),
-                    this.getWorld(),
-                    updateMode,
-                    size,
-                    true);
+                // Island data may be loaded asynchronously.
+                this.<BiomesAddon>getAddon().getAddonManager().requestIslandData(this.getWorld(), user).
+                    thenAccept(islandData ->
+                    {
+                        // Use BiomeUpdateHelper to change biome for user.
+
+                        BiomeUpdateHelper helper = new BiomeUpdateHelper(this.getAddon(),
+                            user,
+                            user,
+                            biome,
+                            islandData,
+                            this.getWorld(),
+                            updateMode,
+                            size,
+                            true);
 
-                if (helper.canChangeBiome())
-                {
-                    helper.updateIslandBiome();
-                    this.setCooldown(user.getUniqueId(), this.<BiomesAddon>getAddon().getSettings().getCoolDown());
+                        if (helper.canChangeBiome())
+                        {
+                            helper.updateIslandBiome();
+                            this.setCooldown(user.getUniqueId(),
+                                this.<BiomesAddon>getAddon().getSettings().getCoolDown());
+                        }
+                    });
 
-                    return true;
-                }
+                return true;
             }
             return false;
         }
@@ -468,61 +474,79 @@ public class BiomesCommand extends BiomesCompositeCommand
                     return false;
                 }
 
-                BiomesIslandDataObject data = addonManager.getIslandData(island);
-
-                if (data == null)
-                {
-                    Utils.sendMessage(user, user.getTranslation("general.errors.no-island"));
-                    return false;
-                }
-
-                if (!data.isUnlocked(biomesObject))
+                // Island data may be loaded asynchronously.
+                addonManager.requestIslandData(island).thenAccept(data ->
                 {
-                    // Check biome unlock status.
-                    if (addonManager.canUnlockBiome(data, island, biomesObject))
+                    if (data == null)
                     {
-                        // Unlock biome as it is marked as valid.
-                        addonManager.unlockBiome(data, user, island, biomesObject);
+                        Utils.sendMessage(user, user.getTranslation("general.errors.no-island"));
                     }
                     else
                     {
-                        // Do not allow to buy non-unlocked biomes.
-                        Utils.sendMessage(user,
-                            user.getTranslation(Constants.MESSAGES + "biome-not-unlocked",
-                                Constants.PARAMETER_BIOME, biomesObject.getFriendlyName()));
-                        return false;
+                        this.buyBiome(user, island, data, biomesObject);
                     }
-                }
+                });
 
-                if (!addonManager.hasPriceSet(biomesObject))
-                {
-                    // If price is not set check if addon should send notification to the user.
-                    if (!this.<BiomesAddon>getAddon().getSettings().isNotifyUnlockedBiomes())
-                    {
-                        // Notify user that biome is available if notify on unlock is disabled.
-                        Utils.sendUnlockMessage(user.getUniqueId(),
-                            island,
-                            biomesObject,
-                            this.getAddon(),
-                            true);
-                    }
+                return true;
+            }
+            else
+            {
+                this.showHelp(this, user);
+                return false;
+            }
+        }
+
+
+        /**
+         * This method unlocks, if it is possible, and purchases biome for the island.
+         *
+         * @param user the user
+         * @param island the island
+         * @param data the island data
+         * @param biomesObject the biome that must be purchased
+         */
+        private void buyBiome(User user, Island island, BiomesIslandDataObject data, BiomesObject biomesObject)
+        {
+            BiomesAddonManager addonManager = this.<BiomesAddon>getAddon().getAddonManager();
 
-                    return true;
+            if (!data.isUnlocked(biomesObject))
+            {
+                // Check biome unlock status.
+                if (addonManager.canUnlockBiome(data, island, biomesObject))
+                {
+                    // Unlock biome as it is marked as valid.
+                    addonManager.unlockBiome(data, user, island, biomesObject);
+                }
+                else
+                {
+                    // Do not allow to buy non-unlocked biomes.
+                    Utils.sendMessage(user,
+                        user.getTranslation(Constants.MESSAGES + "biome-not-unlocked",
+                            Constants.PARAMETER_BIOME, biomesObject.getFriendlyName()));
+                    return;
                 }
+            }
 
-                if (addonManager.canPurchaseBiome(user, island, data, biomesObject))
+            if (!addonManager.hasPriceSet(biomesObject))
+            {
+                // If price is not set check if addon should send notification to the user.
+                if (!this.<BiomesAddon>getAddon().getSettings().isNotifyUnlockedBiomes())
                 {
-                    // Purchase biome.
-                    addonManager.purchaseBiome(user, island, data, biomesObject);
-                    return true;
+                    // Notify user that biome is available if notify on unlock is disabled.
+                    Utils.sendUnlockMessage(user.getUniqueId(),
+                        island,
+                        biomesObject,
+                        this.getAddon(),
+                        true);
                 }
 
-                return false;
+                return;
             }
-            else
+
+            if (addonManager.canPurchaseBiome(user, island, data, biomesObject))
             {
-                this.showHelp(this, user);
-                return false;
+                // Purchase biome.
+                addonManager.purchaseBiome(user, island, data, biomesObject);
             }
         }
 
@@ -411,6 +411,248 @@ public class Settings implements ConfigObject
     }
 
 
+    /**
+     * Gets update tick budget.
+     *
+     * @return the number of milliseconds per tick that biome changes may use
+     */
+    public long getUpdateTickBudget()
+    {
+        return updateTickBudget;
+    }
+
+
+    /**
+     * Sets update tick budget.
+     *
+     * @param updateTickBudget the update tick budget
+     */
+    public void setUpdateTickBudget(long updateTickBudget)
+    {
+        this.updateTickBudget = updateTickBudget;
+    }
+
+
+    /**
+     * Is defer unloaded chunks boolean.
+     *
+     * @return the boolean
+     */
+    public boolean isDeferUnloadedChunks()
+    {
+        return deferUnloadedChunks;
+    }
+
+
+    /**
+     * Sets defer unloaded chunks.
+     *
+     * @param deferUnloadedChunks the defer unloaded chunks
+     */
+    public void setDeferUnloadedChunks(boolean deferUnloadedChunks)
+    {
+        this.deferUnloadedChunks = deferUnloadedChunks;
+    }
+
+
+    /**
+     * Gets chunk refreshes per tick.
+     *
+     * @return the chunk refreshes per tick
+     */
+    public int getChunkRefreshesPerTick()
+    {
+        return chunkRefreshesPerTick;
+    }
+
+
+    /**
+     * Sets chunk refreshes per tick.
+     *
+     * @param chunkRefreshesPerTick the chunk refreshes per tick
+     */
+    public void setChunkRefreshesPerTick(int chunkRefreshesPerTick)
+    {
+        this.chunkRefreshesPerTick = chunkRefreshesPerTick;
+    }
+
+
+    /**
+     * Gets scheduling policy.
+     *
+     * @return the scheduling policy
+     */
+    public SchedulingPolicy getSchedulingPolicy()
+    {
+        return schedulingPolicy;
+    }
+
+
+    /**
+     * Sets scheduling policy.
+     *
+     * @param schedulingPolicy the scheduling policy
+     */
+    public void setSchedulingPolicy(SchedulingPolicy schedulingPolicy)
+    {
+        this.schedulingPolicy = schedulingPolicy;
+    }
+
+
+    /**
+     * Is adaptive concurrency boolean.
+     *
+     * @return the boolean
+     */
+    public boolean isAdaptiveConcurrency()
+    {
+        return adaptiveConcurrency;
+    }
+
+
+    /**
+     * Sets adaptive concurrency.
+     *
+     * @param adaptiveConcurrency the adaptive concurrency
+     */
+    public void setAdaptiveConcurrency(boolean adaptiveConcurrency)
+    {
+        this.adaptiveConcurrency = adaptiveConcurrency;
+    }
+
+
+    /**
+     * Gets target mspt.
+     *
+     * @return the target mspt
+     */
+    public double getTargetMspt()
+    {
+        return targetMspt;
+    }
+
+
+    /**
+     * Sets target mspt.
+     *
+     * @param targetMspt the target mspt
+     */
+    public void setTargetMspt(double targetMspt)
+    {
+        this.targetMspt = targetMspt;
+    }
+
+
+    /**
+     * Gets undo history.
+     *
+     * @return the undo history
+     */
+    public int getUndoHistory()
+    {
+        return undoHistory;
+    }
+
+
+    /**
+     * Sets undo history.
+     *
+     * @param undoHistory the undo history
+     */
+    public void setUndoHistory(int undoHistory)
+    {
+        this.undoHistory = undoHistory;
+    }
+
+
+    /**
+     * Gets island cache size.
+     *
+     * @return the island cache size
+     */
+    public int getIslandCacheSize()
+    {
+        return islandCacheSize;
+    }
+
+
+    /**
+     * Sets island cache size.
+     *
+     * @param islandCacheSize the island cache size
+     */
+    public void setIslandCacheSize(int islandCacheSize)
+    {
+        this.islandCacheSize = islandCacheSize;
+    }
+
+
+    /**
+     * Gets island cache idle time.
+     *
+     * @return the island cache idle time
+     */
+    public int getIslandCacheIdleTime()
+    {
+        return islandCacheIdleTime;
+    }
+
+
+    /**
+     * Sets island cache idle time.
+     *
+     * @param islandCacheIdleTime the island cache idle time
+     */
+    public void setIslandCacheIdleTime(int islandCacheIdleTime)
+    {
+        this.islandCacheIdleTime = islandCacheIdleTime;
+    }
+
+
+    /**
+     * Gets island save interval.
+     *
+     * @return the island save interval
+     */
+    public int getIslandSaveInterval()
+    {
+        return islandSaveInterval;
+    }
+
+
+    /**
+     * Sets island save interval.
+     *
+     * @param islandSaveInterval the island save interval
+     */
+    public void setIslandSaveInterval(int islandSaveInterval)
+    {
+        this.islandSaveInterval = islandSaveInterval;
+    }
+
+
+    /**
+     * Is island cache warm up boolean.
+     *
+     * @return the boolean
+     */
+    public boolean isIslandCacheWarmUp()
+    {
+        return islandCacheWarmUp;
+    }
+
+
+    /**
+     * Sets island cache warm up.
+     *
+     * @param islandCacheWarmUp the island cache warm up
+     */
+    public void setIslandCacheWarmUp(boolean islandCacheWarmUp)
+    {
+        this.islandCacheWarmUp = islandCacheWarmUp;
+    }
+
+
 // ---------------------------------------------------------------------
 // Section: Enums used for Settings.
 // ---------------------------------------------------------------------
@@ -465,6 +707,31 @@ public class Settings implements ConfigObject
     }
 
 
+    /**
+     * This enum describes in which order queued biome changes are started and how running changes share chunks
+     * in each tick.
+     */
+    public enum SchedulingPolicy
+    {
+        /**
+         * Changes are started in the order they were requested.
+         */
+        FIFO,
+        /**
+         * Changes with the least remaining chunks are started and processed first.
+         */
+        SHORTEST_FIRST,
+        /**
+         * Each island gets an equal share of started changes and processed chunks.
+         */
+        ROUND_ROBIN_ISLAND,
+        /**
+         * Each world gets an equal share of started changes and processed chunks.
+         */
+        ROUND_ROBIN_WORLD
+    }
+
+
     // ---------------------------------------------------------------------
     // Section: Variables
     // ---------------------------------------------------------------------
@@ -539,6 +806,100 @@ public class Settings implements ConfigObject
     @SuppressWarnings("javadoc")
     private int concurrentBiomeUpdates = 1;
 
+    @ConfigComment("")
+    @ConfigComment("Allows to choose in which order queued biome changes are processed.")
+    @ConfigComment("Valid values are:")
+    @ConfigComment("    'FIFO' - changes are processed in the order they were requested")
+    @ConfigComment("    'SHORTEST_FIRST' - changes with the least remaining chunks are processed first")
+    @ConfigComment("    'ROUND_ROBIN_ISLAND' - each island gets an equal share of chunks")
+    @ConfigComment("    'ROUND_ROBIN_WORLD' - each world gets an equal share of chunks")
+    @ConfigComment("Running changes share chunks in each tick only when update-tick-budget is used.")
+    @ConfigComment("Default value = FIFO")
+    @ConfigEntry(path = "scheduling-policy")
+    @SuppressWarnings("javadoc")
+    private SchedulingPolicy schedulingPolicy = SchedulingPolicy.FIFO;
+
+    @ConfigComment("")
+    @ConfigComment("Number of milliseconds in each server tick that biome changes are allowed to use.")
+    @ConfigComment("All running biome changes share this budget and process as many chunks as fit in it.")
+    @ConfigComment("Setting it to 0 or lower will process one chunk per biome change at a time.")
+    @ConfigComment("Default value = 10")
+    @ConfigEntry(path = "update-tick-budget")
+    @SuppressWarnings("javadoc")
+    private long updateTickBudget = 10;
+
+    @ConfigComment("")
+    @ConfigComment("Allows to adjust number of parallel biome changes and used tick budget by server tick time.")
+    @ConfigComment("'parallel-biome-changes' and 'update-tick-budget' are used as upper limits.")
+    @ConfigComment("Works only when update-tick-budget is larger than 0.")
+    @ConfigComment("Default value = false")
+    @ConfigEntry(path = "adaptive-concurrency.enabled")
+    @SuppressWarnings("javadoc")
+    private boolean adaptiveConcurrency = false;
+
+    @ConfigComment("")
+    @ConfigComment("Milliseconds per tick that adaptive concurrency tries to stay under.")
+    @ConfigComment("Paper servers report real tick time. On other servers only ticks that take longer than")
+    @ConfigComment("50 ms are detected, so biome changes are slowed down only when server falls behind.")
+    @ConfigComment("Default value = 45")
+    @ConfigEntry(path = "adaptive-concurrency.target-mspt")
+    @SuppressWarnings("javadoc")
+    private double targetMspt = 45;
+
+    @ConfigComment("")
+    @ConfigComment("Allows to skip loading chunks that are not loaded while biome is changed.")
+    @ConfigComment("Biome in such chunks will be changed when chunk is loaded next time.")
+    @ConfigComment("Pending changes are stored in the addon folder and survive server restarts.")
+    @ConfigComment("Default value = false")
+    @ConfigEntry(path = "defer-unloaded-chunks")
+    @SuppressWarnings("javadoc")
+    private boolean deferUnloadedChunks = false;
+
+    @ConfigComment("")
+    @ConfigComment("Number of previous biome changes that are stored for each island, so admins could revert them")
+    @ConfigComment("with undo command. Changes that store previous biomes always load chunks, as deferred chunks")
+    @ConfigComment("cannot read old biomes. 0 disables snapshots.")
+    @ConfigComment("Default value = 0")
+    @ConfigEntry(path = "undo-history")
+    @SuppressWarnings("javadoc")
+    private int undoHistory = 0;
+
+    @ConfigComment("")
+    @ConfigComment("Maximal number of island data objects that are kept in memory. Islands with online members")
+    @ConfigComment("are never removed. Removed data is saved and loaded again when it is needed.")
+    @ConfigComment("Setting it to 0 or lower will remove the limit.")
+    @ConfigComment("Default value = 10000")
+    @ConfigEntry(path = "island-data-cache.max-size")
+    @SuppressWarnings("javadoc")
+    private int islandCacheSize = 10000;
+
+    @ConfigComment("")
+    @ConfigComment("Number of minutes after which island data is removed from memory, if it is not used and")
+    @ConfigComment("none of island members are online.")
+    @ConfigComment("Setting it to 0 or lower will keep island data till server restart.")
+    @ConfigComment("Default value = 30")
+    @ConfigEntry(path = "island-data-cache.idle-time")
+    @SuppressWarnings("javadoc")
+    private int islandCacheIdleTime = 30;
+
+    @ConfigComment("")
+    @ConfigComment("Number of seconds between island data saves. Changes of the same island in this time are")
+    @ConfigComment("written to the database once. All changes are written when addon is disabled.")
+    @ConfigComment("Setting it to 0 or lower will save every change immediately.")
+    @ConfigComment("Default value = 10")
+    @ConfigEntry(path = "island-data-cache.save-interval")
+    @SuppressWarnings("javadoc")
+    private int islandSaveInterval = 10;
+
+    @ConfigComment("")
+    @ConfigComment("Allows to load island data into memory when server starts, so the first biome changes and")
+    @ConfigComment("panels would not wait for the database. Islands of recently active players are loaded first,")
+    @ConfigComment("till 'max-size' islands are loaded.")
+    @ConfigComment("Default value = false")
+    @ConfigEntry(path = "island-data-cache.warm-up")
+    @SuppressWarnings("javadoc")
+    private boolean islandCacheWarmUp = false;
+
 
     @ConfigComment("")
     @ConfigComment("Allows toggling if Biomes Addon should refresh chunks, so players could get biome instantly.")
@@ -550,6 +911,16 @@ public class Settings implements ConfigObject
     @SuppressWarnings("javadoc")
     private boolean useChunkRefresh = true;
 
+    @ConfigComment("")
+    @ConfigComment("Number of chunks that can be refreshed in a single server tick.")
+    @ConfigComment("Only chunks that are in view distance of some player are refreshed. Other chunks")
+    @ConfigComment("are sent with the new biome when player comes close to them.")
+    @ConfigComment("Setting it to 0 or lower will remove the limit.")
+    @ConfigComment("Default value = 20")
+    @ConfigEntry(path = "chunk-refreshes-per-tick")
+    @SuppressWarnings("javadoc")
+    private int chunkRefreshesPerTick = 20;
+
     @ConfigComment("Use single GUI. This will allow to disable buy panel, and use main panel to buy biomes.")
     @ConfigComment("BUY action need to be added to the main panel biome button.")
     @ConfigComment("Default value = false")
@@ -0,0 +1,99 @@
+///
+// Created by BONNe
+// Copyright - 2022
+///
+
+package world.bentobox.biomes.database.adapters;
+
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+
+/**
+ * This class gives each biome unique id a stable ordinal number, so sets of biome ids can be stored as bits. Ids are
+ * interned, so all islands share the same String instances. Ordinals are never reused while server is running.
+ */
+public final class BiomeIdRegistry
+{
+    /**
+     * Utility class constructor.
+     */
+    private BiomeIdRegistry()
+    {
+        // Utility class.
+    }
+
+
+// ---------------------------------------------------------------------
+// Section: Methods
+// ---------------------------------------------------------------------
+
+
+    /**
+     * Returns ordinal of given biome id. If id is not registered yet, it receives the next free ordinal.
+     *
+     * @param biomeId the biome id
+     * @return the ordinal
+     */
+    public static int getOrdinal(String biomeId)
+    {
+        Integer ordinal = ORDINALS.get(biomeId);
+
+        if (ordinal != null)
+        {
+            return ordinal;
+        }
+
+        synchronized (IDS)
+        {
+            return ORDINALS.computeIfAbsent(biomeId, id ->
+            {
+                IDS.add(id);
+                return IDS.size() - 1;
+            });
+        }
+    }
+
+
+    /**
+     * Returns ordinal of given biome id without registering it.
+     *
+     * @param biomeId the biome id
+     * @return the ordinal or {@code -1} if id is not registered.
+     */
+    public static int findOrdinal(String biomeId)
+    {
+        return ORDINALS.getOrDefault(biomeId, -1);
+    }
+
+
+    /**
+     * Returns biome id of given ordinal.
+     *
+     * @param ordinal the ordinal
+     * @return the biome id
+     */
+    public static String getId(int ordinal)
+    {
+        return IDS.get(ordinal);
+    }
+
+
+// ---------------------------------------------------------------------
+// Section: Variables
+// ---------------------------------------------------------------------
+
+
+    /**
+     * Map that links biome id with its ordinal.
+     */
+    private static final Map<String, Integer> ORDINALS = new ConcurrentHashMap<>();
+
+    /**
+     * Biome ids in the order of their ordinals.
+     */
+    private static final List<String> IDS = new CopyOnWriteArrayList<>();
+}
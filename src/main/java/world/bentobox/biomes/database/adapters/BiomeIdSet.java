@@ -0,0 +1,182 @@
+///
+// Created by BONNe
+// Copyright - 2022
+///
+
+package world.bentobox.biomes.database.adapters;
+
+
+import java.util.AbstractSet;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+
+/**
+ * This set stores biome ids as bits of their ordinals in {@link BiomeIdRegistry}. It uses a few longs per island
+ * instead of hash set entries and separate String copies for every island.
+ */
+public class BiomeIdSet extends AbstractSet<String>
+{
+    /**
+     * Instantiates a new empty Biome id set.
+     */
+    public BiomeIdSet()
+    {
+        this.bits = new BitSet();
+    }
+
+
+    /**
+     * Instantiates a new Biome id set with given biome ids.
+     *
+     * @param biomeIds the biome ids
+     */
+    public BiomeIdSet(Collection<String> biomeIds)
+    {
+        this();
+        this.addAll(biomeIds);
+    }
+
+
+// ---------------------------------------------------------------------
+// Section: Methods
+// ---------------------------------------------------------------------
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean contains(Object object)
+    {
+        if (!(object instanceof String biomeId))
+        {
+            return false;
+        }
+
+        int ordinal = BiomeIdRegistry.findOrdinal(biomeId);
+        return ordinal >= 0 && this.bits.get(ordinal);
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean add(String biomeId)
+    {
+        int ordinal = BiomeIdRegistry.getOrdinal(biomeId);
+
+        if (this.bits.get(ordinal))
+        {
+            return false;
+        }
+
+        this.bits.set(ordinal);
+        return true;
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean remove(Object object)
+    {
+        if (!this.contains(object))
+        {
+            return false;
+        }
+
+        this.bits.clear(BiomeIdRegistry.findOrdinal((String) object));
+        return true;
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void clear()
+    {
+        this.bits.clear();
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int size()
+    {
+        return this.bits.cardinality();
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Iterator<String> iterator()
+    {
+        return new Iterator<>()
+        {
+            @Override
+            public boolean hasNext()
+            {
+                return this.next >= 0;
+            }
+
+
+            @Override
+            public String next()
+            {
+                if (this.next < 0)
+                {
+                    throw new NoSuchElementException();
+                }
+
+                this.last = this.next;
+                this.next = BiomeIdSet.this.bits.nextSetBit(this.next + 1);
+                return BiomeIdRegistry.getId(this.last);
+            }
+
+
+            @Override
+            public void remove()
+            {
+                if (this.last < 0)
+                {
+                    throw new IllegalStateException();
+                }
+
+                BiomeIdSet.this.bits.clear(this.last);
+                this.last = -1;
+            }
+
+
+            /**
+             * Ordinal of the next returned biome id.
+             */
+            private int next = BiomeIdSet.this.bits.nextSetBit(0);
+
+            /**
+             * Ordinal of the last returned biome id.
+             */
+            private int last = -1;
+        };
+    }
+
+
+// ---------------------------------------------------------------------
+// Section: Variables
+// ---------------------------------------------------------------------
+
+
+    /**
+     * Bits of biome id ordinals that are in this set.
+     */
+    private final BitSet bits;
+}
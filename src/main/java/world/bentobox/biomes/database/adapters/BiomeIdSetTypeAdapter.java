@@ -0,0 +1,71 @@
+///
+// Created by BONNe
+// Copyright - 2022
+///
+
+package world.bentobox.biomes.database.adapters;
+
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+
+/**
+ * This adapter writes {@link BiomeIdSet} as an array of biome ids, so stored data is the same as it was with a
+ * string set.
+ */
+public class BiomeIdSetTypeAdapter extends TypeAdapter<BiomeIdSet>
+{
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void write(JsonWriter out, BiomeIdSet biomeIdSet) throws IOException
+    {
+        if (biomeIdSet == null)
+        {
+            out.nullValue();
+            return;
+        }
+
+        out.beginArray();
+
+        for (String biomeId : biomeIdSet)
+        {
+            out.value(biomeId);
+        }
+
+        out.endArray();
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public BiomeIdSet read(JsonReader in) throws IOException
+    {
+        BiomeIdSet biomeIdSet = new BiomeIdSet();
+
+        if (in.peek() == JsonToken.NULL)
+        {
+            in.nextNull();
+            return biomeIdSet;
+        }
+
+        in.beginArray();
+
+        while (in.hasNext())
+        {
+            biomeIdSet.add(in.nextString());
+        }
+
+        in.endArray();
+
+        return biomeIdSet;
+    }
+}
@@ -7,11 +7,11 @@ package world.bentobox.biomes.database.objects;
 
 
 import com.google.gson.annotations.Expose;
+import com.google.gson.annotations.JsonAdapter;
 
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
@@ -19,6 +19,8 @@ import java.util.concurrent.atomic.AtomicInteger;
 
 import world.bentobox.bentobox.database.objects.DataObject;
 import world.bentobox.bentobox.database.objects.Table;
+import world.bentobox.biomes.database.adapters.BiomeIdSet;
+import world.bentobox.biomes.database.adapters.BiomeIdSetTypeAdapter;
 
 
 /**
@@ -120,7 +122,7 @@ public class BiomesIslandDataObject implements DataObject
      */
     public void setUnlockedBiomes(Set<String> unlockedBiomes)
     {
-        this.unlockedBiomes = unlockedBiomes;
+        this.unlockedBiomes = new BiomeIdSet(unlockedBiomes);
     }
 
 
@@ -142,7 +144,7 @@ public class BiomesIslandDataObject implements DataObject
      */
     public void setPurchasedBiomes(Set<String> purchasedBiomes)
     {
-        this.purchasedBiomes = purchasedBiomes;
+        this.purchasedBiomes = new BiomeIdSet(purchasedBiomes);
     }
 
 
@@ -365,13 +367,15 @@ public class BiomesIslandDataObject implements DataObject
      * Stores a names of unlocked biomes.
      */
     @Expose
-    private Set<String> unlockedBiomes = new HashSet<>();
+    @JsonAdapter(BiomeIdSetTypeAdapter.class)
+    private BiomeIdSet unlockedBiomes = new BiomeIdSet();
 
     /**
      * Stores a names of purchased biomes.
      */
     @Expose
-    private Set<String> purchasedBiomes = new HashSet<>();
+    @JsonAdapter(BiomeIdSetTypeAdapter.class)
+    private BiomeIdSet purchasedBiomes = new BiomeIdSet();
 
     /**
      * Stores map that links biome with how many times it is updated.
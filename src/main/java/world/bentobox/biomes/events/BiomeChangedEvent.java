@@ -43,6 +43,32 @@ public class BiomeChangedEvent extends BentoBoxEvent
         @NotNull BlockVector minCoordinate,
         @NotNull BlockVector maxCoordinate,
         @Nullable UpdateQueue.Result result)
+    {
+        this(biome, user, island, minCoordinate, maxCoordinate, result, 0, 0);
+    }
+
+
+    /**
+     * Instantiates a new Biome changed event.
+     *
+     * @param biome the biome
+     * @param user the user
+     * @param island the island
+     * @param minCoordinate the min coordinate
+     * @param maxCoordinate the max coordinate
+     * @param result the result
+     * @param changedCells the number of changed biome cells
+     * @param skippedChunks the number of chunks that did not require any change
+     */
+    public BiomeChangedEvent(
+        @NotNull BiomesObject biome,
+        @Nullable User user,
+        @NotNull Island island,
+        @NotNull BlockVector minCoordinate,
+        @NotNull BlockVector maxCoordinate,
+        @Nullable UpdateQueue.Result result,
+        int changedCells,
+        int skippedChunks)
     {
         this.biomesObject = biome;
         this.user = user;
@@ -51,6 +77,8 @@ public class BiomeChangedEvent extends BentoBoxEvent
         this.maxCoordinate = maxCoordinate;
 
         this.result = result;
+        this.changedCells = changedCells;
+        this.skippedChunks = skippedChunks;
     }
 
 
@@ -253,6 +281,28 @@ public class BiomeChangedEvent extends BentoBoxEvent
     }
 
 
+    /**
+     * Gets number of changed biome cells. Each cell is 4x4x4 blocks large.
+     *
+     * @return the number of changed biome cells
+     */
+    public int getChangedCells()
+    {
+        return this.changedCells;
+    }
+
+
+    /**
+     * Gets number of chunks which already had requested biome, so they were not changed and refreshed.
+     *
+     * @return the number of skipped chunks
+     */
+    public int getSkippedChunks()
+    {
+        return this.skippedChunks;
+    }
+
+
 // ---------------------------------------------------------------------
 // Section: Handler methods
 // ---------------------------------------------------------------------
@@ -321,6 +371,16 @@ public class BiomeChangedEvent extends BentoBoxEvent
     @Nullable
     private final UpdateQueue.Result result;
 
+    /**
+     * The number of changed biome cells.
+     */
+    private final int changedCells;
+
+    /**
+     * The number of chunks that did not require any change.
+     */
+    private final int skippedChunks;
+
     /**
      * Event listener list for current
      */
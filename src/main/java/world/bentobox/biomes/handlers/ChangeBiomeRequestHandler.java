@@ -9,6 +9,8 @@ package world.bentobox.biomes.handlers;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
 
 import org.bukkit.Bukkit;
 import org.bukkit.World;
@@ -18,6 +20,7 @@ import world.bentobox.bentobox.api.user.User;
 import world.bentobox.bentobox.util.Util;
 import world.bentobox.biomes.BiomesAddon;
 import world.bentobox.biomes.config.Settings;
+import world.bentobox.biomes.database.objects.BiomesIslandDataObject;
 import world.bentobox.biomes.database.objects.BiomesObject;
 import world.bentobox.biomes.tasks.BiomeUpdateHelper;
 
@@ -128,37 +131,33 @@ public class ChangeBiomeRequestHandler extends AddonRequestHandler
                 !(metaData.get(WITHDRAW) instanceof Boolean) ||
                 (boolean) metaData.get(WITHDRAW);
 
-            BiomeUpdateHelper helper = new BiomeUpdateHelper(this.addon,
-                User.getInstance(player),
-                User.getInstance(player),
-                biome,
-                this.addon.getAddonManager().getIslandData(world, User.getInstance(player)),
-                world,
-                mode,
-                range,
-                withdraw);
-
-            if (checkRequirements)
+            Function<BiomesIslandDataObject, BiomeUpdateHelper> helperFactory = islandData ->
+                new BiomeUpdateHelper(this.addon,
+                    User.getInstance(player),
+                    User.getInstance(player),
+                    biome,
+                    islandData,
+                    world,
+                    mode,
+                    range,
+                    withdraw);
+
+            CompletableFuture<BiomesIslandDataObject> islandData =
+                this.addon.getAddonManager().requestIslandData(world, User.getInstance(player));
+
+            if (islandData.isDone())
             {
-                if (helper.canChangeBiome())
-                {
-                    helper.updateIslandBiome();
-
-                    returnMap.put(STATUS, true);
-                    returnMap.put(REASON, "Biome is updated by checking all requirements!");
-                }
-                else
-                {
-                    returnMap.put(STATUS, false);
-                    returnMap.put(REASON, "Player does not met requirements for biome changing!");
-                }
+                // Island data is in the cache.
+                this.changeBiome(helperFactory.apply(islandData.getNow(null)), checkRequirements, returnMap);
             }
             else
             {
-                helper.updateIslandBiome();
+                // Island data is loaded asynchronously, so the result cannot be returned.
+                islandData.thenAccept(data ->
+                    this.changeBiome(helperFactory.apply(data), checkRequirements, new HashMap<>(2)));
 
                 returnMap.put(STATUS, true);
-                returnMap.put(REASON, "Biome is updated by skipping all requirements!");
+                returnMap.put(REASON, "Biome will be updated after island data is loaded!");
             }
         }
 
@@ -166,6 +165,40 @@ public class ChangeBiomeRequestHandler extends AddonRequestHandler
     }
 
 
+    /**
+     * This method changes biome with given helper and puts the result in the return map.
+     *
+     * @param helper Biome update helper.
+     * @param checkRequirements Indicates if requirements must be checked.
+     * @param returnMap Map that stores the result.
+     */
+    private void changeBiome(BiomeUpdateHelper helper, boolean checkRequirements, Map<String, Object> returnMap)
+    {
+        if (checkRequirements)
+        {
+            if (helper.canChangeBiome())
+            {
+                helper.updateIslandBiome();
+
+                returnMap.put(STATUS, true);
+                returnMap.put(REASON, "Biome is updated by checking all requirements!");
+            }
+            else
+            {
+                returnMap.put(STATUS, false);
+                returnMap.put(REASON, "Player does not met requirements for biome changing!");
+            }
+        }
+        else
+        {
+            helper.updateIslandBiome();
+
+            returnMap.put(STATUS, true);
+            returnMap.put(REASON, "Biome is updated by skipping all requirements!");
+        }
+    }
+
+
     /**
      * Variable stores biomes addon.
      */
@@ -83,16 +83,17 @@ public class ChangeOwnerListener implements Listener
                 defaultBiomeObject.setBiome(biome);
             }
 
-            // Forcefully update biome on whole user island.
-            new BiomeUpdateHelper(this.addon,
-                newUser,
-                newUser,
-                defaultBiomeObject,
-                this.addon.getAddonManager().getIslandData(event.getIsland()),
-                event.getIsland().getWorld(),
-                UpdateMode.ISLAND,
-                1,
-                false).updateIslandBiome();
+            // Forcefully update biome on whole user island. Island data may be loaded asynchronously.
+            this.addon.getAddonManager().requestIslandData(event.getIsland()).thenAccept(islandData ->
+                new BiomeUpdateHelper(this.addon,
+                    newUser,
+                    newUser,
+                    defaultBiomeObject,
+                    islandData,
+                    event.getIsland().getWorld(),
+                    UpdateMode.ISLAND,
+                    1,
+                    false).updateIslandBiome());
         }
     }
 
@@ -0,0 +1,59 @@
+///
+// Created by BONNe
+// Copyright - 2022
+///
+
+
+package world.bentobox.biomes.listeners;
+
+
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.world.ChunkLoadEvent;
+
+import world.bentobox.biomes.BiomesAddon;
+
+
+/**
+ * This listener applies biome changes that were deferred while chunk was not loaded.
+ */
+public class ChunkLoadListener implements Listener
+{
+    /**
+     * Instantiates a new Chunk load listener.
+     *
+     * @param addon the addon
+     */
+    public ChunkLoadListener(BiomesAddon addon)
+    {
+        this.addon = addon;
+    }
+
+
+    /**
+     * On chunk load.
+     *
+     * @param event the event
+     */
+    @EventHandler(priority = EventPriority.NORMAL)
+    public void onChunkLoad(ChunkLoadEvent event)
+    {
+        if (this.addon.getUpdateQueue() == null)
+        {
+            return;
+        }
+
+        this.addon.getUpdateQueue().getPendingChanges().applyChanges(event.getChunk());
+    }
+
+
+// ---------------------------------------------------------------------
+// Section: Variables
+// ---------------------------------------------------------------------
+
+    /**
+     * Instance of addon for event.
+     */
+    private final BiomesAddon addon;
+}
@@ -11,16 +11,18 @@ import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
 
 import world.bentobox.bentobox.api.events.island.IslandCreatedEvent;
 import world.bentobox.bentobox.api.events.island.IslandDeleteEvent;
 import world.bentobox.bentobox.api.events.island.IslandRegisteredEvent;
 import world.bentobox.bentobox.api.events.island.IslandResettedEvent;
 import world.bentobox.biomes.BiomesAddon;
+import world.bentobox.biomes.utils.Utils;
 
 
 /**
- * This listener loads player islands in cache when they login.
+ * This listener loads player islands in cache when they login and releases them when they leave.
  */
 public class JoinLeaveListener implements Listener
 {
@@ -41,11 +43,26 @@ public class JoinLeaveListener implements Listener
     @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
     public void onPlayerJoin(PlayerJoinEvent event)
     {
+        // Permissions could be changed while player was offline.
+        Utils.clearPermissionCache(event.getPlayer().getUniqueId());
         // Load player into cache
         this.addon.getAddonManager().loadUserIslands(event.getPlayer().getUniqueId());
     }
 
 
+    /**
+     * This method handles player quit event. When player leaves, its islands can be removed from local cache.
+     *
+     * @param event PlayerQuitEvent instance.
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent event)
+    {
+        Utils.clearPermissionCache(event.getPlayer().getUniqueId());
+        this.addon.getAddonManager().releaseUserIslands(event.getPlayer().getUniqueId());
+    }
+
+
     /**
      * This method handles Island Created event.
      *
@@ -9,7 +9,11 @@ package world.bentobox.biomes.managers;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.EnumSet;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -18,16 +22,22 @@ import java.util.Set;
 import java.util.TreeMap;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import org.bukkit.Bukkit;
 import org.bukkit.GameMode;
-import org.bukkit.Location;
 import org.bukkit.Material;
+import org.bukkit.OfflinePlayer;
 import org.bukkit.World;
 import org.bukkit.block.Biome;
 import org.bukkit.inventory.ItemStack;
+import org.bukkit.util.BoundingBox;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -49,8 +59,12 @@ import world.bentobox.biomes.database.objects.BiomesIslandDataObject;
 import world.bentobox.biomes.database.objects.BiomesObject;
 import world.bentobox.biomes.events.BiomePurchasedEvent;
 import world.bentobox.biomes.events.BiomeUnlockedEvent;
+import world.bentobox.biomes.tasks.BiomeSnapshot;
+import world.bentobox.biomes.tasks.BiomeUpdateTask;
+import world.bentobox.biomes.tasks.UpdateQueue;
 import world.bentobox.biomes.utils.Constants;
 import world.bentobox.biomes.utils.Utils;
+import world.bentobox.greenhouses.data.Greenhouse;
 
 
 /**
@@ -71,12 +85,25 @@ public class BiomesAddonManager
 
         this.biomesDatabase = new Database<>(addon, BiomesObject.class);
         this.biomesCache = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        this.biomesIndex = new ConcurrentHashMap<>();
 
         this.bundleDatabase = new Database<>(addon, BiomesBundleObject.class);
         this.bundleCache = new HashMap<>();
 
         this.islandDatabase = new Database<>(addon, BiomesIslandDataObject.class);
-        this.islandCache = new HashMap<>();
+        this.islandCache = new IslandDataCache(addon, this.islandDatabase);
+        this.loadingIslands = new ConcurrentHashMap<>();
+
+        AtomicInteger threadCounter = new AtomicInteger(0);
+
+        int loadThreads = Math.max(2, Runtime.getRuntime().availableProcessors() / 4);
+
+        this.islandLoadExecutor = Executors.newFixedThreadPool(loadThreads, runnable ->
+        {
+            Thread thread = new Thread(runnable, "Biomes Island Loader " + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
 
         this.load();
     }
@@ -93,6 +120,7 @@ public class BiomesAddonManager
     private void load()
     {
         this.biomesCache.clear();
+        this.biomesIndex.clear();
         this.addon.getLogger().info("Loading biomes...");
         this.biomesDatabase.loadObjects().forEach(this::loadBiomes);
         this.bundleDatabase.loadObjects().forEach(this::loadBundle);
@@ -127,6 +155,8 @@ public class BiomesAddonManager
     public void saveBiome(BiomesObject biome)
     {
         this.biomesDatabase.saveObjectAsync(biome);
+        // Order or environment could be changed.
+        this.invalidateBiomeIndex(biome.getUniqueId());
     }
 
 
@@ -198,6 +228,7 @@ public class BiomesAddonManager
                 }
 
                 this.biomesCache.replace(biome.getUniqueId(), biome);
+                this.invalidateBiomeIndex(biome.getUniqueId());
                 return true;
             }
         }
@@ -210,6 +241,7 @@ public class BiomesAddonManager
         }
 
         this.biomesCache.put(biome.getUniqueId(), biome);
+        this.invalidateBiomeIndex(biome.getUniqueId());
         return true;
     }
 
@@ -291,6 +323,7 @@ public class BiomesAddonManager
             if (biomesObject.getUniqueId().matches("(.*[A-Z].*)"))
             {
                 this.biomesCache.remove(biomesObject.getUniqueId());
+                this.invalidateBiomeIndex(biomesObject.getUniqueId());
                 this.biomesDatabase.deleteObject(biomesObject);
 
                 biomesObject.setUniqueId(biomesObject.getUniqueId().toLowerCase());
@@ -379,6 +412,8 @@ public class BiomesAddonManager
     public void saveBundle(BiomesBundleObject bundle)
     {
         this.bundleDatabase.saveObjectAsync(bundle);
+        // Bundle biome list could be changed.
+        this.invalidateBundleBiomes(bundle.getUniqueId());
     }
 
 
@@ -413,6 +448,7 @@ public class BiomesAddonManager
             else
             {
                 this.bundleCache.replace(bundle.getUniqueId(), bundle);
+                this.invalidateBundleBiomes(bundle.getUniqueId());
                 return true;
             }
         }
@@ -425,6 +461,7 @@ public class BiomesAddonManager
         }
 
         this.bundleCache.put(bundle.getUniqueId(), bundle);
+        this.invalidateBundleBiomes(bundle.getUniqueId());
         return true;
     }
 
@@ -439,6 +476,7 @@ public class BiomesAddonManager
         if (this.bundleCache.containsKey(bundle.getUniqueId()))
         {
             this.bundleCache.remove(bundle.getUniqueId());
+            this.invalidateBundleBiomes(bundle.getUniqueId());
             this.bundleDatabase.deleteID(bundle.getUniqueId());
         }
     }
@@ -469,18 +507,215 @@ public class BiomesAddonManager
                 else
                 {
                     // Members does not influence island data.
-                    this.addIslandData(island);
+                    this.requestIslandData(island);
                 }
             });
     }
 
 
     /**
-     * Gets island data.
+     * This method loads island data from the database in a worker thread. If the same island is already being
+     * loaded, the returned future is shared, so database is read only once. Loaded data is put in the cache.
+     *
+     * @param island the island
+     * @return the completable future with island data or {@code null}, if island does not have stored data
+     */
+    public CompletableFuture<BiomesIslandDataObject> loadIslandData(@NotNull Island island)
+    {
+        final String uniqueID = island.getUniqueId();
+        BiomesIslandDataObject cachedData = this.islandCache.get(uniqueID);
+
+        if (cachedData != null)
+        {
+            return CompletableFuture.completedFuture(cachedData);
+        }
+
+        CompletableFuture<BiomesIslandDataObject> future = new CompletableFuture<>();
+        CompletableFuture<BiomesIslandDataObject> loadingFuture = this.loadingIslands.putIfAbsent(uniqueID, future);
+
+        if (loadingFuture != null)
+        {
+            // Island is already being loaded.
+            return loadingFuture;
+        }
+
+        this.islandLoadExecutor.execute(() ->
+        {
+            try
+            {
+                // Data could be evicted while load was queued. It is kept aside until it is saved, so database
+                // may not contain the latest changes yet.
+                BiomesIslandDataObject data = this.islandCache.get(uniqueID);
+
+                if (data == null)
+                {
+                    data = this.readIslandData(uniqueID);
+
+                    if (data != null)
+                    {
+                        this.islandCache.putIfAbsent(uniqueID, data);
+                    }
+                }
+
+                future.complete(data);
+            }
+            catch (Exception e)
+            {
+                future.completeExceptionally(e);
+            }
+            finally
+            {
+                this.loadingIslands.remove(uniqueID, future);
+            }
+        });
+
+        return future;
+    }
+
+
+    /**
+     * This method preloads island data into the cache, so the first interactions after restart would not need to
+     * read database. Islands of the most recently active players are selected, until the cache size limit is
+     * reached. Selected islands are loaded in parallel batches by island loading threads, and loading stops when
+     * the cache is full.
+     */
+    public void warmUpIslandData()
+    {
+        final long startTime = System.currentTimeMillis();
+
+        // Island members are collected in the main thread, as islands can be changed by it.
+        Map<String, Set<UUID>> islandMembers = new HashMap<>();
+
+        this.addon.getIslands().getIslands().stream().
+            filter(island -> island.getOwner() != null).
+            forEach(island -> islandMembers.put(island.getUniqueId(), new HashSet<>(island.getMemberSet())));
+
+        final int limit = this.addon.getSettings().getIslandCacheSize();
+
+        AtomicInteger readCounter = new AtomicInteger(0);
+        AtomicInteger keptCounter = new AtomicInteger(0);
+
+        CompletableFuture.supplyAsync(() -> this.selectWarmUpIslands(islandMembers, limit), this.islandLoadExecutor).
+            thenCompose(islandIds ->
+            {
+                CompletableFuture<Void> warmUp = CompletableFuture.completedFuture(null);
+
+                for (int index = 0; index < islandIds.size(); index += WARM_UP_BATCH_SIZE)
+                {
+                    List<String> batch = islandIds.subList(index,
+                        Math.min(islandIds.size(), index + WARM_UP_BATCH_SIZE));
+
+                    // Next batch is started only when previous one is loaded, so database is not flooded.
+                    warmUp = warmUp.thenCompose(previous ->
+                    {
+                        if (limit > 0 && this.islandCache.size() >= limit)
+                        {
+                            // Cache is full, other islands are loaded when they are used.
+                            return CompletableFuture.completedFuture(null);
+                        }
+
+                        return CompletableFuture.allOf(batch.stream().
+                            map(uniqueId -> CompletableFuture.runAsync(() ->
+                            {
+                                BiomesIslandDataObject data = this.readIslandData(uniqueId);
+
+                                if (data != null)
+                                {
+                                    readCounter.incrementAndGet();
+
+                                    if (this.islandCache.putWarm(uniqueId, data))
+                                    {
+                                        keptCounter.incrementAndGet();
+                                    }
+                                }
+                            }, this.islandLoadExecutor).exceptionally(error -> null)).
+                            toArray(CompletableFuture[]::new));
+                    });
+                }
+
+                return warmUp.thenRun(() ->
+                    this.addon.log("Preloaded " + keptCounter.get() + " island data records (" +
+                        readCounter.get() + " read from database) for " + islandIds.size() +
+                        " islands in " + (System.currentTimeMillis() - startTime) + " ms."));
+            }).
+            exceptionally(error ->
+            {
+                this.addon.logError("Could not preload island data: " + error.getMessage());
+                return null;
+            });
+    }
+
+
+    /**
+     * This method returns ids of islands which members played most recently. Offline players are read from disk,
+     * so it must not be called from the main thread.
+     *
+     * @param islandMembers map that links island id with its members
+     * @param limit maximal number of islands or 0 if there is no limit
+     * @return the list of island ids from the most recently active
+     */
+    private List<String> selectWarmUpIslands(Map<String, Set<UUID>> islandMembers, int limit)
+    {
+        Map<UUID, Long> lastPlayedMap = new HashMap<>();
+
+        for (OfflinePlayer player : Bukkit.getOfflinePlayers())
+        {
+            lastPlayedMap.put(player.getUniqueId(), player.getLastPlayed());
+        }
+
+        return islandMembers.entrySet().stream().
+            sorted(Comparator.<Map.Entry<String, Set<UUID>>>comparingLong(entry -> entry.getValue().stream().
+                mapToLong(uuid -> lastPlayedMap.getOrDefault(uuid, 0L)).
+                max().
+                orElse(0L)).reversed()).
+            limit(limit > 0 ? limit : Long.MAX_VALUE).
+            map(Map.Entry::getKey).
+            collect(Collectors.toList());
+    }
+
+
+    /**
+     * This method stops island data loading threads.
+     */
+    public void shutdown()
+    {
+        this.islandLoadExecutor.shutdown();
+    }
+
+
+    /**
+     * This method allows to evict user islands from the cache, when they are not used anymore. Islands are evicted
+     * after configured idle time, if none of their members are online.
+     *
+     * @param uniqueId the unique id
+     */
+    public void releaseUserIslands(UUID uniqueId)
+    {
+        if (this.addon.getSettings().getIslandCacheIdleTime() <= 0)
+        {
+            // Idle eviction is disabled.
+            return;
+        }
+
+        long delay = this.addon.getSettings().getIslandCacheIdleTime() * 1200L;
+
+        this.addon.getPlugin().getIWM().getWorlds().stream().
+            map(world -> this.addon.getIslands().getIsland(world, uniqueId)).
+            filter(Objects::nonNull).
+            map(Island::getUniqueId).
+            forEach(islandId -> Bukkit.getScheduler().runTaskLater(this.addon.getPlugin(),
+                () -> this.islandCache.evictIfIdle(islandId),
+                delay));
+    }
+
+
+    /**
+     * Gets island data from the cache. If data is not loaded, it is requested asynchronously and {@code null} is
+     * returned, so this method never reads database in the main thread.
      *
      * @param world the world
      * @param user the user
-     * @return the island data
+     * @return the island data or {@code null} if it is not loaded
      */
     @Nullable
     public BiomesIslandDataObject getIslandData(@Nullable World world, @Nullable User user)
@@ -495,10 +730,11 @@ public class BiomesAddonManager
 
 
     /**
-     * Gets island data.
+     * Gets island data from the cache. If data is not loaded, it is requested asynchronously and {@code null} is
+     * returned, so this method never reads database in the main thread.
      *
      * @param island the island
-     * @return the island data
+     * @return the island data or {@code null} if it is not loaded
      */
     @Nullable
     public BiomesIslandDataObject getIslandData(@Nullable Island island)
@@ -508,61 +744,149 @@ public class BiomesAddonManager
             return null;
         }
 
-        this.addIslandData(island);
-        return this.islandCache.get(island.getUniqueId());
+        BiomesIslandDataObject data = this.islandCache.get(island.getUniqueId());
+
+        if (data == null)
+        {
+            this.requestIslandData(island);
+        }
+
+        return data;
     }
 
 
     /**
-     * Load island from database into the cache or create new island data
+     * Returns island data of the user island. Data is loaded asynchronously if it is not in the cache.
      *
-     * @param island - island that must be loaded
+     * @param world the world
+     * @param user the user
+     * @return the completable future with island data or {@code null} if user does not have an island.
+     * @see #requestIslandData(Island)
      */
-    private void addIslandData(@NotNull Island island)
+    public CompletableFuture<BiomesIslandDataObject> requestIslandData(@Nullable World world, @Nullable User user)
     {
-        final String uniqueID = island.getUniqueId();
+        if (world == null || user == null)
+        {
+            return CompletableFuture.completedFuture(null);
+        }
 
-        if (this.islandCache.containsKey(uniqueID))
+        return this.requestIslandData(this.addon.getIslandsManager().getIsland(world, user));
+    }
+
+
+    /**
+     * Returns island data of given island. If data is not in the cache, it is loaded by island loading threads,
+     * sharing the load with other requests of the same island. New data is created if island does not have stored
+     * data. Returned future is completed in the main thread.
+     *
+     * @param island the island
+     * @return the completable future with island data or {@code null} if island is not set or data could not be
+     * loaded.
+     */
+    public CompletableFuture<BiomesIslandDataObject> requestIslandData(@Nullable Island island)
+    {
+        if (island == null)
         {
-            return;
+            return CompletableFuture.completedFuture(null);
         }
 
-        // The island is not in the cache
-        // Check if the island exists in the database
+        BiomesIslandDataObject cachedData = this.islandCache.get(island.getUniqueId());
 
-        if (this.islandDatabase.objectExists(uniqueID))
+        if (cachedData != null)
         {
-            // Load player from database
-            BiomesIslandDataObject data = this.islandDatabase.loadObject(uniqueID);
-            // Store in cache
+            return CompletableFuture.completedFuture(cachedData);
+        }
 
-            if (data != null)
-            {
-                this.islandCache.put(uniqueID, data);
-            }
-            else
+        CompletableFuture<BiomesIslandDataObject> result = new CompletableFuture<>();
+
+        this.loadIslandData(island).whenComplete((data, error) ->
+            Bukkit.getScheduler().runTask(this.addon.getPlugin(), () ->
             {
-                this.addon.logError("Could not load NULL island data object.");
-            }
+                if (error != null)
+                {
+                    // New data must not be created, as it would override stored data.
+                    this.addon.logError("Could not load island data " + island.getUniqueId() + ": " +
+                        error.getMessage());
+                    result.complete(null);
+                }
+                else
+                {
+                    result.complete(this.addIslandData(island, data));
+                }
+            }));
+
+        return result;
+    }
+
+
+    /**
+     * Adds loaded island data into the cache or creates new island data, if island does not have stored data.
+     * Must be called in the main thread.
+     *
+     * @param island - island that must be added
+     * @param data - data that was loaded from database, can be null
+     * @return the island data from the cache
+     */
+    private BiomesIslandDataObject addIslandData(@NotNull Island island, @Nullable BiomesIslandDataObject data)
+    {
+        final String uniqueID = island.getUniqueId();
+        BiomesIslandDataObject cachedData = this.islandCache.get(uniqueID);
+
+        if (cachedData != null)
+        {
+            // Added by the loader.
+            return cachedData;
         }
-        else
+
+        if (data != null)
         {
-            // Create the island data
-            BiomesIslandDataObject pd = new BiomesIslandDataObject();
-            pd.setUniqueId(uniqueID);
+            // Store in cache
+            this.islandCache.put(uniqueID, data);
+            return data;
+        }
 
-            // Update island data
-            pd.setIslandBundle(null);
+        // Create the island data
+        BiomesIslandDataObject pd = new BiomesIslandDataObject();
+        pd.setUniqueId(uniqueID);
 
-            // Update owner data.
-            this.updateOwnerBundle(island, pd);
+        // Update island data
+        pd.setIslandBundle(null);
 
-            // Save data.
-            this.saveIslandData(pd);
+        // Update owner data.
+        this.updateOwnerBundle(island, pd);
+
+        // Save data.
+        this.saveIslandData(pd);
+
+        // Add to cache
+        this.islandCache.put(uniqueID, pd);
+        return pd;
+    }
 
-            // Add to cache
-            this.islandCache.put(uniqueID, pd);
+
+    /**
+     * This method reads island data from the database.
+     *
+     * @param uniqueID Island id.
+     * @return island data or {@code null}, if island does not have stored data.
+     */
+    @Nullable
+    private BiomesIslandDataObject readIslandData(String uniqueID)
+    {
+        if (!this.islandDatabase.objectExists(uniqueID))
+        {
+            return null;
         }
+
+        // Load player from database
+        BiomesIslandDataObject data = this.islandDatabase.loadObject(uniqueID);
+
+        if (data == null)
+        {
+            this.addon.logError("Could not load NULL island data object.");
+        }
+
+        return data;
     }
 
 
@@ -589,59 +913,75 @@ public class BiomesAddonManager
 
 
     /**
-     * This method adds, validates and returns island data for given island.
+     * This method adds, validates and returns island data for given island. Data is loaded asynchronously if it is
+     * not in the cache.
      *
      * @param island Island which data must be returned.
-     * @return BiomesIslandDataObject or null if failed to create.
+     * @return the completable future with island data or null if failed to create, completed in the main thread.
      */
-    @Nullable
-    public BiomesIslandDataObject validateIslandData(@Nullable Island island)
+    public CompletableFuture<BiomesIslandDataObject> validateIslandData(@Nullable Island island)
     {
         return this.validateIslandData(island, null);
     }
 
 
     /**
-     * This method adds, validates and returns island data for given island.
+     * This method adds, validates and returns island data for given island. Data is loaded asynchronously if it is
+     * not in the cache.
      *
      * @param island Island which data must be returned.
      * @param user User who triggered validation.
-     * @return BiomesIslandDataObject or null if failed to create.
+     * @return the completable future with island data or null if failed to create, completed in the main thread.
      */
-    @Nullable
-    public BiomesIslandDataObject validateIslandData(@Nullable Island island, @Nullable User user)
+    public CompletableFuture<BiomesIslandDataObject> validateIslandData(@Nullable Island island,
+        @Nullable User user)
     {
         if (island == null || island.getOwner() == null)
         {
-            return null;
+            return CompletableFuture.completedFuture(null);
         }
 
-        this.addIslandData(island);
-        BiomesIslandDataObject dataObject = this.islandCache.get(island.getUniqueId());
-
-        if (dataObject == null)
+        return this.requestIslandData(island).thenApply(dataObject ->
         {
-            return null;
-        }
-
-        // Validate data in bundles object.
-        this.updateOwnerBundle(island, dataObject);
+            if (dataObject != null)
+            {
+                // Validate data in bundles object.
+                this.updateOwnerBundle(island, dataObject);
 
-        // Call check command which finds unlocked biomes.
-        this.checkBiomesUnlockStatus(island, user, this.getIslandLevel(island));
+                // Call check command which finds unlocked biomes.
+                this.checkBiomesUnlockStatus(island, user, this.getIslandLevel(island), true);
+            }
 
-        return dataObject;
+            return dataObject;
+        });
     }
 
 
     /**
-     * This method checks for all generators, if they are unlocked.
+     * This method checks biomes which unlock level was reached since the previous check, and biomes that require
+     * permissions, if they are unlocked.
      *
      * @param island Island which is targeted for unlocking check.
      * @param user User who triggered check.
      * @param level New island level value.
      */
     public void checkBiomesUnlockStatus(Island island, @Nullable User user, @Nullable Long level)
+    {
+        this.checkBiomesUnlockStatus(island, user, level, false);
+    }
+
+
+    /**
+     * This method checks for all biomes, if they are unlocked. If full check is not requested, only biomes with
+     * unlock level between previously checked level and the new level are checked, as all others below it were
+     * already processed.
+     *
+     * @param island Island which is targeted for unlocking check.
+     * @param user User who triggered check.
+     * @param level New island level value.
+     * @param fullCheck {@code true} if all biomes must be checked.
+     */
+    private void checkBiomesUnlockStatus(Island island, @Nullable User user, @Nullable Long level, boolean fullCheck)
     {
         if (island == null || island.getOwner() == null)
         {
@@ -649,15 +989,31 @@ public class BiomesAddonManager
             return;
         }
 
-        this.addIslandData(island);
-        BiomesIslandDataObject dataObject = this.islandCache.get(island.getUniqueId());
-
-        if (dataObject == null)
+        this.requestIslandData(island).thenAccept(dataObject ->
         {
-            // Could not find any data for current island.
-            return;
-        }
+            if (dataObject != null)
+            {
+                this.checkBiomesUnlockStatus(island, user, level, fullCheck, dataObject);
+            }
+        });
+    }
+
 
+    /**
+     * This method checks biomes of loaded island data, if they are unlocked.
+     *
+     * @param island Island which is targeted for unlocking check.
+     * @param user User who triggered check.
+     * @param level New island level value.
+     * @param fullCheck {@code true} if all biomes must be checked.
+     * @param dataObject Island data.
+     */
+    private void checkBiomesUnlockStatus(Island island,
+        @Nullable User user,
+        @Nullable Long level,
+        boolean fullCheck,
+        BiomesIslandDataObject dataObject)
+    {
         // Update owner bundle, as it may influence island generators.
         this.updateOwnerBundle(island, dataObject);
 
@@ -665,11 +1021,34 @@ public class BiomesAddonManager
         final long islandLevel = level == null ? this.getIslandLevel(island) : level;
         final User owner = island.getOwner() == null ? null : User.getInstance(island.getOwner());
 
-        this.getIslandBiomes(island.getWorld(), dataObject).stream().
-            filter(BiomesObject::isValid).
-            filter(BiomesObject::isDeployed).
+        LevelIndex levelIndex = this.getLevelIndex(island.getWorld(), dataObject);
+
+        if (levelIndex == null)
+        {
+            return;
+        }
+
+        UnlockThreshold threshold = this.islandCache.putUnlockThreshold(island.getUniqueId(),
+            new UnlockThreshold(levelIndex, islandLevel));
+
+        Stream<BiomesObject> biomeStream;
+
+        if (fullCheck || threshold == null || threshold.levelIndex() != levelIndex)
+        {
+            // First check, or biomes or bundle are changed since the last check.
+            biomeStream = levelIndex.getBiomes(Long.MIN_VALUE, islandLevel);
+        }
+        else
+        {
+            // Biomes with permissions could be unlocked by permission change at any level.
+            final long checkedLevel = Math.min(threshold.level(), islandLevel);
+
+            biomeStream = Stream.concat(levelIndex.getBiomes(threshold.level(), islandLevel),
+                levelIndex.permissionBiomes().stream().filter(biome -> biome.getUnlockLevel() <= checkedLevel));
+        }
+
+        biomeStream.
             filter(biome -> !dataObject.getUnlockedBiomes().contains(biome.getUniqueId())).
-            filter(biome -> biome.getUnlockLevel() <= islandLevel).
             filter(biome -> biome.getUnlockPermissions().isEmpty() ||
                 owner != null && owner.isOnline() && Utils.matchAllPermissions(owner, biome.getUnlockPermissions())).
             forEach(biome -> this.unlockBiome(dataObject, user, island, biome));
@@ -686,10 +1065,50 @@ public class BiomesAddonManager
      */
     public List<BiomesObject> getIslandBiomes(World world, @Nullable BiomesIslandDataObject islandData)
     {
-        // Optimization could be done by generating bundles for each situation, but currently I do not
-        // think it should be an actual problem here.
-        Stream<BiomesObject> biomesObjects =
-            this.getBiomes(world).stream().filter(BiomesObject::isDeployed).filter(BiomesObject::isValid);
+        BiomeIndex biomeIndex = this.getBiomeIndex(world);
+
+        if (biomeIndex == null)
+        {
+            return Collections.emptyList();
+        }
+
+        return this.getBundleBiomes(biomeIndex, this.getBundleId(islandData));
+    }
+
+
+    /**
+     * This method returns biomes of island world sorted by their unlock level. It checks if island has assigned any
+     * bundle, and limits available biomes based on bundle data.
+     *
+     * @param world the world
+     * @param islandData the island data
+     * @return the level index or {@code null} if world is not a gamemode world.
+     */
+    @Nullable
+    private LevelIndex getLevelIndex(World world, @Nullable BiomesIslandDataObject islandData)
+    {
+        BiomeIndex biomeIndex = this.getBiomeIndex(world);
+
+        if (biomeIndex == null)
+        {
+            return null;
+        }
+
+        return biomeIndex.levelIndexes().computeIfAbsent(this.getBundleId(islandData),
+            bundleId -> LevelIndex.create(this.getBundleBiomes(biomeIndex, bundleId)));
+    }
+
+
+    /**
+     * This method returns id of the bundle that is used by given island. Owner bundle has larger priority then
+     * island bundle.
+     *
+     * @param islandData the island data
+     * @return the bundle id or empty string if island does not use any bundle.
+     */
+    private String getBundleId(@Nullable BiomesIslandDataObject islandData)
+    {
+        String bundleId = NO_BUNDLE;
 
         if (islandData != null)
         {
@@ -697,30 +1116,69 @@ public class BiomesAddonManager
             if (islandData.getOwnerBundle() != null &&
                 this.bundleCache.containsKey(islandData.getOwnerBundle()))
             {
-                BiomesBundleObject bundle = this.bundleCache.get(islandData.getOwnerBundle());
-
-                return biomesObjects.
-                    filter(biomesObject -> bundle.getBiomeObjects().contains(biomesObject.getUniqueId())).
-                    collect(Collectors.toList());
+                bundleId = islandData.getOwnerBundle();
             }
             else if (islandData.getIslandBundle() != null &&
                 this.bundleCache.containsKey(islandData.getIslandBundle()))
             {
-                BiomesBundleObject bundle = this.bundleCache.get(islandData.getIslandBundle());
-
-                return biomesObjects.
-                    filter(biomesObject -> bundle.getBiomeObjects().contains(biomesObject.getUniqueId())).
-                    collect(Collectors.toList());
+                bundleId = islandData.getIslandBundle();
             }
-            else
+        }
+
+        return bundleId;
+    }
+
+
+    /**
+     * This method returns deployed and valid biomes available with given bundle. Biome list is resolved only once
+     * after biomes or bundle are changed.
+     *
+     * @param biomeIndex Biome index of the gamemode.
+     * @param bundleId the bundle id
+     * @return the list of biomes
+     */
+    private List<BiomesObject> getBundleBiomes(BiomeIndex biomeIndex, String bundleId)
+    {
+        List<BiomesObject> biomesObjects = biomeIndex.bundleBiomes().get(bundleId);
+
+        if (biomesObjects == null)
+        {
+            Stream<BiomesObject> biomesStream =
+                biomeIndex.biomes().stream().filter(BiomesObject::isDeployed).filter(BiomesObject::isValid);
+
+            BiomesBundleObject bundle = this.bundleCache.get(bundleId);
+
+            if (bundle != null)
             {
-                return biomesObjects.collect(Collectors.toList());
+                biomesStream = biomesStream.
+                    filter(biomesObject -> bundle.getBiomeObjects().contains(biomesObject.getUniqueId()));
             }
+
+            biomesObjects = biomesStream.collect(Collectors.toUnmodifiableList());
+            biomeIndex.bundleBiomes().put(bundleId, biomesObjects);
         }
-        else
+
+        return biomesObjects;
+    }
+
+
+    /**
+     * This method removes resolved biome lists of given bundle from the index of the bundle gamemode.
+     *
+     * @param bundleId Id of the changed bundle.
+     */
+    private void invalidateBundleBiomes(String bundleId)
+    {
+        final String bundleKey = bundleId.toLowerCase();
+
+        this.biomesIndex.forEach((gameMode, biomeIndex) ->
         {
-            return biomesObjects.collect(Collectors.toList());
-        }
+            if (bundleKey.startsWith(gameMode))
+            {
+                biomeIndex.bundleBiomes().remove(bundleId);
+                biomeIndex.levelIndexes().remove(bundleId);
+            }
+        });
     }
 
 
@@ -1165,7 +1623,16 @@ public class BiomesAddonManager
      */
     public void saveIslandData(BiomesIslandDataObject islandData)
     {
-        this.islandDatabase.saveObjectAsync(islandData);
+        this.islandCache.save(islandData);
+    }
+
+
+    /**
+     * This method writes all island data changes that are not saved yet.
+     */
+    public void flushIslandData()
+    {
+        this.islandCache.flushDirty();
     }
 
 
@@ -1218,7 +1685,7 @@ public class BiomesAddonManager
 
         final String objectKey = optional.get().getDescription().getName();
 
-        List<String> keySet = new ArrayList<>(this.islandCache.keySet());
+        List<String> keySet = this.islandCache.keySet();
 
         // Remove everything that starts with gamemode name.
         keySet.forEach(uniqueId ->
@@ -1284,16 +1751,13 @@ public class BiomesAddonManager
      */
     public List<BiomesObject> getBiomes(World world, User user)
     {
-        List<BiomesObject> allBiomeList = this.getBiomes(world);
-
-        List<BiomesObject> returnBiomesList = new ArrayList<>(allBiomeList.size());
+        List<BiomesObject> returnBiomesList = new ArrayList<>();
 
         // Filter out all biomes that has a different environment then players world.
         // Filter out undeployed biomes if visibility mode is set to only deployed
         // Filter out biomes which does user not have permissions
 
-        allBiomeList.stream().
-            filter(biomeObject -> user.getWorld().getEnvironment().equals(biomeObject.getEnvironment())).
+        this.getBiomes(world, user.getWorld().getEnvironment()).stream().
             filter(BiomesObject::isDeployed).
             filter(biomesObject -> biomesObject.getUnlockPermissions().isEmpty() ||
                 biomesObject.getUnlockPermissions().stream().allMatch(user::hasPermission)).
@@ -1304,27 +1768,184 @@ public class BiomesAddonManager
 
 
     /**
-     * This method returns list with loaded biomes for given world.
+     * This method returns list with loaded biomes for given world. Returned list is sorted and cannot be modified.
      *
      * @param world World where biome operates.
      * @return list with loaded biomes.
      */
     public List<BiomesObject> getBiomes(World world)
+    {
+        BiomeIndex biomeIndex = this.getBiomeIndex(world);
+        return biomeIndex == null ? Collections.emptyList() : biomeIndex.biomes();
+    }
+
+
+    /**
+     * This method returns list with loaded biomes for given world and environment. Returned list is sorted and
+     * cannot be modified.
+     *
+     * @param world World where biome operates.
+     * @param environment Environment of biomes.
+     * @return list with loaded biomes.
+     */
+    public List<BiomesObject> getBiomes(World world, World.Environment environment)
+    {
+        BiomeIndex biomeIndex = this.getBiomeIndex(world);
+        return biomeIndex == null ? Collections.emptyList() :
+            biomeIndex.environmentBiomes().getOrDefault(environment, Collections.emptyList());
+    }
+
+
+    /**
+     * This method returns biome index for the gamemode of given world. Index is built when it is requested for the
+     * first time after biomes of the gamemode were changed.
+     *
+     * @param world World where biome operates.
+     * @return the biome index or {@code null} if world is not a gamemode world.
+     */
+    @Nullable
+    private BiomeIndex getBiomeIndex(World world)
     {
         final String gameMode = Utils.getGameMode(Util.getWorld(world));
 
         if (gameMode.isEmpty())
         {
             // If not a gamemode world then return.
-            return Collections.emptyList();
+            return null;
         }
 
-        // Find biomes that is defined to the given gamemode.
-        // Sort biomes by its comparator.
-        return this.biomesCache.values().stream().
-            filter(biome -> biome.getUniqueId().startsWith(gameMode)).
-            sorted(BiomesObject::compareTo).
-            collect(Collectors.toList());
+        BiomeIndex biomeIndex = this.biomesIndex.get(gameMode);
+
+        if (biomeIndex == null)
+        {
+            // Find biomes that is defined to the given gamemode.
+            // Sort biomes by its comparator.
+            List<BiomesObject> biomes = this.biomesCache.values().stream().
+                filter(biome -> biome.getUniqueId().startsWith(gameMode)).
+                sorted(BiomesObject::compareTo).
+                collect(Collectors.toUnmodifiableList());
+
+            Map<World.Environment, List<BiomesObject>> environmentBiomes = new EnumMap<>(World.Environment.class);
+
+            biomes.stream().
+                filter(biome -> biome.getEnvironment() != null).
+                collect(Collectors.groupingBy(BiomesObject::getEnvironment, Collectors.toUnmodifiableList())).
+                forEach(environmentBiomes::put);
+
+            biomeIndex = new BiomeIndex(biomes,
+                Collections.unmodifiableMap(environmentBiomes),
+                new ConcurrentHashMap<>(),
+                new ConcurrentHashMap<>());
+            this.biomesIndex.put(gameMode, biomeIndex);
+        }
+
+        return biomeIndex;
+    }
+
+
+    /**
+     * This method updates indexes of gamemodes that could contain given biome. Other gamemode indexes are not
+     * changed.
+     *
+     * @param uniqueId Id of the changed biome.
+     */
+    private void invalidateBiomeIndex(String uniqueId)
+    {
+        if (uniqueId == null)
+        {
+            this.biomesIndex.clear();
+        }
+        else
+        {
+            final String biomeId = uniqueId.toLowerCase();
+            final BiomesObject biome = this.biomesCache.get(uniqueId);
+
+            this.biomesIndex.replaceAll((gameMode, biomeIndex) -> biomeId.startsWith(gameMode) ?
+                this.updateBiomeIndex(biomeIndex, uniqueId, biome) : biomeIndex);
+        }
+
+        // Permissions are cached by biome id.
+        Utils.clearPermissionCache();
+    }
+
+
+    /**
+     * This method returns copy of the biome index with given biome moved to its sorted position, or removed if
+     * biome does not exist anymore. Only environment lists that contain the biome, and resolved lists of bundles
+     * that contain the biome, are changed.
+     *
+     * @param biomeIndex Index of the biome gamemode.
+     * @param uniqueId Id of the changed biome.
+     * @param biome Changed biome or {@code null} if biome is removed.
+     * @return the updated biome index
+     */
+    private BiomeIndex updateBiomeIndex(BiomeIndex biomeIndex, String uniqueId, @Nullable BiomesObject biome)
+    {
+        List<BiomesObject> biomes = new ArrayList<>(biomeIndex.biomes().size() + 1);
+
+        biomeIndex.biomes().stream().
+            filter(biomesObject -> !biomesObject.getUniqueId().equals(uniqueId)).
+            forEach(biomes::add);
+
+        // Biome could be edited in place, so its previous environment is found by lists that contain it.
+        Set<World.Environment> environments = EnumSet.noneOf(World.Environment.class);
+
+        biomeIndex.environmentBiomes().forEach((environment, environmentList) ->
+        {
+            if (environmentList.stream().anyMatch(biomesObject -> biomesObject.getUniqueId().equals(uniqueId)))
+            {
+                environments.add(environment);
+            }
+        });
+
+        if (biome != null)
+        {
+            // Other biomes are still sorted, so binary search finds position of the changed biome.
+            int position = Collections.binarySearch(biomes, biome);
+            biomes.add(position < 0 ? -position - 1 : position, biome);
+
+            if (biome.getEnvironment() != null)
+            {
+                environments.add(biome.getEnvironment());
+            }
+        }
+
+        Map<World.Environment, List<BiomesObject>> environmentBiomes = new EnumMap<>(World.Environment.class);
+        environmentBiomes.putAll(biomeIndex.environmentBiomes());
+
+        environments.forEach(environment ->
+        {
+            List<BiomesObject> environmentList = biomes.stream().
+                filter(biomesObject -> environment.equals(biomesObject.getEnvironment())).
+                collect(Collectors.toUnmodifiableList());
+
+            if (environmentList.isEmpty())
+            {
+                environmentBiomes.remove(environment);
+            }
+            else
+            {
+                environmentBiomes.put(environment, environmentList);
+            }
+        });
+
+        // Biomes without bundle contain every biome. Removed bundles are resolved as biomes without bundle.
+        Predicate<String> affectedBundle = bundleId ->
+        {
+            BiomesBundleObject bundle = this.bundleCache.get(bundleId);
+            return bundle == null || bundle.getBiomeObjects().contains(uniqueId);
+        };
+
+        Map<String, List<BiomesObject>> bundleBiomes = new ConcurrentHashMap<>(biomeIndex.bundleBiomes());
+        bundleBiomes.keySet().removeIf(affectedBundle);
+
+        Map<String, LevelIndex> levelIndexes = new ConcurrentHashMap<>(biomeIndex.levelIndexes());
+        levelIndexes.keySet().removeIf(affectedBundle);
+
+        return new BiomeIndex(Collections.unmodifiableList(biomes),
+            Collections.unmodifiableMap(environmentBiomes),
+            bundleBiomes,
+            levelIndexes);
     }
 
 
@@ -1359,6 +1980,7 @@ public class BiomesAddonManager
             {
                 BiomesObject biome = this.biomesDatabase.loadObject(name);
                 this.biomesCache.put(name, biome);
+                this.invalidateBiomeIndex(name);
                 return true;
             }
         }
@@ -1377,6 +1999,7 @@ public class BiomesAddonManager
         if (this.biomesCache.containsKey(biome.getUniqueId()))
         {
             this.biomesCache.remove(biome.getUniqueId());
+            this.invalidateBiomeIndex(biome.getUniqueId());
             this.biomesDatabase.deleteObject(biome);
         }
     }
@@ -1410,11 +2033,13 @@ public class BiomesAddonManager
             }
         });
 
+        this.biomesIndex.remove(objectKey);
+        Utils.clearPermissionCache();
         this.addon.log("All biomes for " + objectKey + " are removed!");
 
         // Collect all bundles
         keySet.clear();
-        keySet = new ArrayList<>(this.biomesCache.keySet());
+        keySet = new ArrayList<>(this.bundleCache.keySet());
 
         // Remove everything that starts with gamemode name.
         keySet.forEach(uniqueId ->
@@ -1422,6 +2047,7 @@ public class BiomesAddonManager
             if (uniqueId.startsWith(objectKey))
             {
                 this.bundleCache.remove(uniqueId);
+                this.invalidateBundleBiomes(uniqueId);
                 this.bundleDatabase.deleteID(uniqueId);
             }
         });
@@ -1438,27 +2064,30 @@ public class BiomesAddonManager
      */
     public boolean hasAnyBiome(World world)
     {
-        final String gameMode = Utils.getGameMode(Util.getWorld(world));
-
-        return !gameMode.isEmpty() &&
-            this.biomesCache.values().stream().anyMatch(biome -> biome.getUniqueId().startsWith(gameMode));
+        return !this.getBiomes(world).isEmpty();
     }
 
 
     /**
-     * This method returns true if in given location exit a greenhouse.
+     * This method returns areas of all greenhouses in given world that intersect given area.
      *
-     * @param world World where greenhouse must be searched.
-     * @param x X location.
-     * @param y Y location.
-     * @param z Z location.
-     * @return {@code true} if in given location exist a greenhouse, {@code false} otherwise.
+     * @param world World where greenhouses must be searched.
+     * @param area Area that must be checked.
+     * @return List of greenhouse bounding boxes that intersect given area.
      */
-    public boolean hasGreenhouseInLocation(World world, int x, int y, int z)
+    public List<BoundingBox> getGreenhouseAreas(World world, BoundingBox area)
     {
-        return this.addon.isGreenhousesProvided() &&
-            this.addon.getGreenhouses().getManager().getMap().
-                inGreenhouse(new Location(world, x, y, z));
+        if (!this.addon.isGreenhousesProvided())
+        {
+            return Collections.emptyList();
+        }
+
+        return this.addon.getGreenhouses().getManager().getMap().getGreenhouses().stream().
+            filter(greenhouse -> world.equals(greenhouse.getWorld())).
+            map(Greenhouse::getBoundingBox).
+            filter(area::overlaps).
+            map(BoundingBox::clone).
+            collect(Collectors.toList());
     }
 
 
@@ -1540,7 +2169,7 @@ public class BiomesAddonManager
 
 
     /**
-     * This method clears biome change queue for the given world.
+     * This method cancels all queued and running biome changes for the given world.
      * @param user User who triggers queue cleaning.
      * @param world World where queue must be cleared.
      */
@@ -1550,26 +2179,213 @@ public class BiomesAddonManager
         Optional<GameModeAddon> gameMode = islandWorldManager.getAddon(world);
 
         gameMode.ifPresent(gamemode -> {
-            // Remove all tasks with the same world as given from the queue.
-            this.addon.getUpdateQueue().getProcessQueue().removeIf(task -> gamemode.getOverWorld() == task.getWorld());
+            // Cancel all tasks with the same world as given.
+            UpdateQueue updateQueue = this.addon.getUpdateQueue();
+            int cancelled = updateQueue.cancelWorldTasks(gamemode.getOverWorld());
 
             if (islandWorldManager.isNetherGenerate(world) && islandWorldManager.isNetherIslands(world))
             {
-                this.addon.getUpdateQueue().getProcessQueue().removeIf(task -> gamemode.getNetherWorld() == task.getWorld());
+                cancelled += updateQueue.cancelWorldTasks(gamemode.getNetherWorld());
             }
 
             if (islandWorldManager.isEndGenerate(world) && islandWorldManager.isEndIslands(world))
             {
-                this.addon.getUpdateQueue().getProcessQueue().removeIf(task -> gamemode.getEndWorld() == task.getWorld());
+                cancelled += updateQueue.cancelWorldTasks(gamemode.getEndWorld());
             }
 
             Utils.sendMessage(user,
-                user.getTranslationOrNothing(Constants.MESSAGES + "queue.clear",
-                    Constants.PARAMETER_GAMEMODE, gamemode.getDescription().getName()));
+                user.getTranslationOrNothing(Constants.MESSAGES + "clear-queue",
+                    Constants.PARAMETER_GAMEMODE, gamemode.getDescription().getName(),
+                    TextVariables.NUMBER, String.valueOf(cancelled)));
+        });
+    }
+
+
+    /**
+     * This method reverts the latest stored biome change on the given island. Previous biomes are written by a
+     * biome update task, so it follows the same queue and limits as other changes. Snapshot is loaded
+     * asynchronously, and the user is informed if island does not have stored changes.
+     * @param user User who triggers undo.
+     * @param island Island where change must be reverted.
+     * @return always {@code true}, as the result is sent to the user when snapshot is loaded.
+     */
+    public boolean undoBiomeChange(User user, Island island)
+    {
+        UpdateQueue updateQueue = this.addon.getUpdateQueue();
+        updateQueue.getSnapshotStore().pollLatest(island.getUniqueId()).
+            thenAccept(snapshot -> this.restoreSnapshot(user, island, snapshot));
+
+        return true;
+    }
+
+
+    /**
+     * This method queues task that writes biomes from given snapshot back in the island.
+     * @param user User who triggers undo.
+     * @param island Island where change must be reverted.
+     * @param snapshot Snapshot of previous biomes, can be null.
+     */
+    private void restoreSnapshot(User user, Island island, BiomeSnapshot snapshot)
+    {
+        UpdateQueue updateQueue = this.addon.getUpdateQueue();
+        World world = snapshot == null ? null : Bukkit.getWorld(snapshot.getWorldName());
+
+        if (world == null)
+        {
+            Utils.sendMessage(user, user.getTranslation(Constants.ERRORS + "no-snapshot"));
+            return;
+        }
+
+        // Restore task does not write a single biome, so it uses a placeholder object without id.
+        BiomesObject previousBiomes = new BiomesObject();
+        previousBiomes.setFriendlyName(user.getTranslation(Constants.MESSAGES + "previous-biomes"));
+        previousBiomes.setBiome(Biome.THE_VOID);
+        previousBiomes.setEnvironment(world.getEnvironment());
+
+        BiomeUpdateTask task = new BiomeUpdateTask(this.addon, user, previousBiomes);
+        task.setWorld(world);
+        task.setIslandId(island.getUniqueId());
+        task.setMinCoordinate(snapshot.getMinCoordinate());
+        task.setMaxCoordinate(snapshot.getMaxCoordinate());
+        task.setRestoreSnapshot(snapshot);
+        task.updateChunkQueue();
+
+        updateQueue.addUpdateTask(task).thenAccept(result ->
+        {
+            if (result == UpdateQueue.Result.FINISHED)
+            {
+                Utils.sendMessage(user, user.getTranslation(Constants.MESSAGES + "undo-done"));
+            }
+            else
+            {
+                Utils.sendMessage(user, user.getTranslation(Constants.ERRORS + "failed"));
+            }
+
+            this.addon.log(user.getName() + " reverted biome change on island " + island.getUniqueId() +
+                " with result " + result);
         });
     }
 
 
+    // ---------------------------------------------------------------------
+    // Section: Classes
+    // ---------------------------------------------------------------------
+
+
+    /**
+     * The record that contains sorted and unmodifiable biome lists of a single gamemode.
+     *
+     * @param biomes all biomes of the gamemode
+     * @param environmentBiomes biomes of the gamemode grouped by environment
+     * @param bundleBiomes deployed and valid biomes available with a bundle, resolved on request
+     * @param levelIndexes biomes available with a bundle sorted by unlock level, resolved on request
+     */
+    private record BiomeIndex(List<BiomesObject> biomes,
+                              Map<World.Environment, List<BiomesObject>> environmentBiomes,
+                              Map<String, List<BiomesObject>> bundleBiomes,
+                              Map<String, LevelIndex> levelIndexes)
+    {
+    }
+
+
+    /**
+     * The record that contains biomes of a single bundle sorted by their unlock level, so biomes which level is
+     * between two island levels can be found with binary search.
+     *
+     * @param levels sorted unlock levels
+     * @param biomes biomes in the same order as levels
+     * @param permissionBiomes biomes that require permissions to be unlocked
+     */
+    record LevelIndex(long[] levels, BiomesObject[] biomes, List<BiomesObject> permissionBiomes)
+    {
+        /**
+         * Creates level index from given biomes.
+         *
+         * @param biomeList the biome list
+         * @return the level index
+         */
+        static LevelIndex create(List<BiomesObject> biomeList)
+        {
+            BiomesObject[] biomes = biomeList.stream().
+                sorted(Comparator.comparingLong(BiomesObject::getUnlockLevel)).
+                toArray(BiomesObject[]::new);
+
+            long[] levels = new long[biomes.length];
+
+            for (int index = 0; index < biomes.length; index++)
+            {
+                levels[index] = biomes[index].getUnlockLevel();
+            }
+
+            return new LevelIndex(levels,
+                biomes,
+                biomeList.stream().
+                    filter(biome -> !biome.getUnlockPermissions().isEmpty()).
+                    collect(Collectors.toUnmodifiableList()));
+        }
+
+
+        /**
+         * Returns biomes which unlock level is larger than given lower level and is not larger than given upper
+         * level.
+         *
+         * @param fromLevel the lower level, exclusive
+         * @param toLevel the upper level, inclusive
+         * @return the stream of biomes
+         */
+        Stream<BiomesObject> getBiomes(long fromLevel, long toLevel)
+        {
+            if (fromLevel >= toLevel)
+            {
+                return Stream.empty();
+            }
+
+            return Arrays.stream(this.biomes, this.upperBound(fromLevel), this.upperBound(toLevel));
+        }
+
+
+        /**
+         * Returns index of the first biome which unlock level is larger than given level.
+         *
+         * @param level the level
+         * @return the index
+         */
+        int upperBound(long level)
+        {
+            int low = 0;
+            int high = this.levels.length;
+
+            while (low < high)
+            {
+                int middle = (low + high) >>> 1;
+
+                if (this.levels[middle] <= level)
+                {
+                    low = middle + 1;
+                }
+                else
+                {
+                    high = middle;
+                }
+            }
+
+            return low;
+        }
+    }
+
+
+    /**
+     * The record that contains the island level that was processed by the last unlock check. It is stored in
+     * the island data cache, so it is dropped together with evicted or removed island data.
+     *
+     * @param levelIndex level index which was used by the check
+     * @param level island level
+     */
+    record UnlockThreshold(LevelIndex levelIndex, long level)
+    {
+    }
+
+
     // ---------------------------------------------------------------------
     // Section: Variables
     // ---------------------------------------------------------------------
@@ -1584,6 +2400,16 @@ public class BiomesAddonManager
      */
     private final Map<String, BiomesObject> biomesCache;
 
+    /**
+     * Map that links gamemode with its sorted biomes.
+     */
+    private final Map<String, BiomeIndex> biomesIndex;
+
+    /**
+     * Key of resolved biome list for islands without a bundle.
+     */
+    private static final String NO_BUNDLE = "";
+
     /**
      * Variable stores map that links String to loaded bundle object.
      */
@@ -1592,7 +2418,22 @@ public class BiomesAddonManager
     /**
      * Variable stores map that links String to loaded island data object.
      */
-    private final Map<String, BiomesIslandDataObject> islandCache;
+    private final IslandDataCache islandCache;
+
+    /**
+     * Map that links island id with its data that is being loaded.
+     */
+    private final Map<String, CompletableFuture<BiomesIslandDataObject>> loadingIslands;
+
+    /**
+     * Executor that loads island data from the database.
+     */
+    private final ExecutorService islandLoadExecutor;
+
+    /**
+     * Number of islands that are loaded together while cache is warmed up.
+     */
+    private static final int WARM_UP_BATCH_SIZE = 256;
 
     /**
      * Variable stores database of island dat objects.
@@ -0,0 +1,460 @@
+///
+// Created by BONNe
+// Copyright - 2022
+///
+
+package world.bentobox.biomes.managers;
+
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.bukkit.Bukkit;
+
+import world.bentobox.bentobox.BentoBox;
+import world.bentobox.bentobox.database.Database;
+import world.bentobox.biomes.BiomesAddon;
+import world.bentobox.biomes.database.objects.BiomesIslandDataObject;
+
+
+/**
+ * This class holds island data objects in memory. Entries of islands without online members are evicted when they
+ * are not used for configured idle time, or when cache grows over the configured size. Evicted data is saved
+ * asynchronously and is kept aside until the save is finished, so it could be returned without reading database.
+ * <br>
+ * Saves are delayed: changed data is marked as dirty and all dirty data is written together on the configured
+ * interval, so many changes of the same island cause a single database write.
+ */
+public class IslandDataCache
+{
+    /**
+     * Instantiates a new Island data cache.
+     *
+     * @param addon the addon
+     * @param database the island data database
+     */
+    public IslandDataCache(BiomesAddon addon, Database<BiomesIslandDataObject> database)
+    {
+        this.addon = addon;
+        this.database = database;
+
+        this.cache = new LinkedHashMap<>(16, 0.75f, true);
+        this.lastAccess = new ConcurrentHashMap<>();
+        this.evictedData = new ConcurrentHashMap<>();
+        this.dirtyData = new ConcurrentHashMap<>();
+        this.unlockThresholds = new ConcurrentHashMap<>();
+
+        Bukkit.getScheduler().runTaskTimer(BentoBox.getInstance(), task ->
+        {
+            if (!BentoBox.getInstance().isEnabled() || !this.addon.isEnabled())
+            {
+                task.cancel();
+                return;
+            }
+
+            this.seconds++;
+
+            int saveInterval = this.addon.getSettings().getIslandSaveInterval();
+
+            if (saveInterval > 0 && this.seconds % saveInterval == 0)
+            {
+                this.flushDirty();
+            }
+
+            if (this.seconds % SWEEP_INTERVAL == 0)
+            {
+                this.evictIdle();
+            }
+        }, 20L, 20L);
+    }
+
+
+// ---------------------------------------------------------------------
+// Section: Methods
+// ---------------------------------------------------------------------
+
+
+    /**
+     * Returns island data from the cache. Data that is evicted, but not saved yet, is returned into the cache.
+     * Data that is not in the cache must be loaded by {@link BiomesAddonManager#loadIslandData}, so concurrent
+     * requests of the same island share a single database read.
+     *
+     * @param uniqueId the island id
+     * @return the island data or {@code null} if it is not in the cache
+     */
+    public synchronized BiomesIslandDataObject get(String uniqueId)
+    {
+        BiomesIslandDataObject data = this.cache.get(uniqueId);
+
+        if (data == null)
+        {
+            data = this.evictedData.remove(uniqueId);
+
+            if (data == null)
+            {
+                // Evicted data which save failed waits for the next batch.
+                data = this.dirtyData.get(uniqueId);
+            }
+
+            if (data == null)
+            {
+                return null;
+            }
+
+            this.cache.put(uniqueId, data);
+        }
+
+        this.lastAccess.put(uniqueId, System.currentTimeMillis());
+        return data;
+    }
+
+
+    /**
+     * Returns if island data is in the cache.
+     *
+     * @param uniqueId the island id
+     * @return {@code true} if data is in the cache
+     */
+    public boolean containsKey(String uniqueId)
+    {
+        return this.get(uniqueId) != null;
+    }
+
+
+    /**
+     * Adds island data in the cache. If cache is larger than allowed, the least recently used entries are evicted.
+     *
+     * @param uniqueId the island id
+     * @param data the island data
+     */
+    public synchronized void put(String uniqueId, BiomesIslandDataObject data)
+    {
+        this.cache.put(uniqueId, data);
+        this.evictedData.remove(uniqueId);
+        this.lastAccess.put(uniqueId, System.currentTimeMillis());
+
+        int maxSize = this.addon.getSettings().getIslandCacheSize();
+
+        if (maxSize <= 0 || this.cache.size() <= maxSize)
+        {
+            return;
+        }
+
+        Iterator<Map.Entry<String, BiomesIslandDataObject>> iterator = this.cache.entrySet().iterator();
+
+        while (iterator.hasNext() && this.cache.size() > maxSize)
+        {
+            Map.Entry<String, BiomesIslandDataObject> entry = iterator.next();
+
+            if (!entry.getKey().equals(uniqueId) && !this.hasOnlineMembers(entry.getKey()))
+            {
+                iterator.remove();
+                this.flush(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+
+    /**
+     * Adds island data in the cache, if it does not contain data for this island yet. It does not evict other
+     * entries, so it can be used outside the main thread.
+     *
+     * @param uniqueId the island id
+     * @param data the island data
+     */
+    public synchronized void putIfAbsent(String uniqueId, BiomesIslandDataObject data)
+    {
+        if (!this.cache.containsKey(uniqueId) && !this.evictedData.containsKey(uniqueId))
+        {
+            this.cache.put(uniqueId, data);
+            this.lastAccess.put(uniqueId, System.currentTimeMillis());
+        }
+    }
+
+
+    /**
+     * Adds preloaded island data in the cache, if it does not contain data for this island yet. Idle time of
+     * preloaded data starts after warm-up window, or when data is used for the first time, so data is not evicted
+     * before players return to the server.
+     *
+     * @param uniqueId the island id
+     * @param data the island data
+     * @return {@code true} if data was added in the cache.
+     */
+    public synchronized boolean putWarm(String uniqueId, BiomesIslandDataObject data)
+    {
+        if (this.cache.containsKey(uniqueId) || this.evictedData.containsKey(uniqueId))
+        {
+            return false;
+        }
+
+        this.cache.put(uniqueId, data);
+        this.lastAccess.put(uniqueId, System.currentTimeMillis() + WARM_UP_WINDOW);
+        return true;
+    }
+
+
+    /**
+     * Removes island data from the cache without saving it. Changes that are not saved yet are dropped.
+     *
+     * @param uniqueId the island id
+     */
+    public synchronized void remove(String uniqueId)
+    {
+        this.cache.remove(uniqueId);
+        this.evictedData.remove(uniqueId);
+        this.dirtyData.remove(uniqueId);
+        this.lastAccess.remove(uniqueId);
+        this.unlockThresholds.remove(uniqueId);
+    }
+
+
+    /**
+     * Stores the island level that was processed by the unlock check. Threshold is kept only while island data is
+     * in the cache.
+     *
+     * @param uniqueId the island id
+     * @param threshold the processed unlock threshold
+     * @return the previous threshold or {@code null} if island was not checked since data was loaded
+     */
+    synchronized BiomesAddonManager.UnlockThreshold putUnlockThreshold(String uniqueId,
+        BiomesAddonManager.UnlockThreshold threshold)
+    {
+        return this.unlockThresholds.put(uniqueId, threshold);
+    }
+
+
+    /**
+     * Marks island data as changed. It is written with the next batch, or immediately if save interval is
+     * disabled.
+     *
+     * @param data the island data
+     */
+    public void save(BiomesIslandDataObject data)
+    {
+        if (this.addon.getSettings().getIslandSaveInterval() <= 0)
+        {
+            this.write(data);
+        }
+        else
+        {
+            // Repeated changes of the same island are merged into a single write.
+            this.dirtyData.put(data.getUniqueId(), data);
+        }
+    }
+
+
+    /**
+     * This method writes all dirty island data to the database.
+     */
+    public void flushDirty()
+    {
+        if (this.dirtyData.isEmpty())
+        {
+            return;
+        }
+
+        for (String uniqueId : new ArrayList<>(this.dirtyData.keySet()))
+        {
+            BiomesIslandDataObject data = this.dirtyData.remove(uniqueId);
+
+            if (data != null)
+            {
+                this.write(data);
+            }
+        }
+    }
+
+
+    /**
+     * Returns number of islands with changes that are not saved yet.
+     *
+     * @return the number of dirty islands
+     */
+    public int getDirtyCount()
+    {
+        return this.dirtyData.size();
+    }
+
+
+    /**
+     * Returns ids of all islands in the cache.
+     *
+     * @return the list of island ids
+     */
+    public synchronized List<String> keySet()
+    {
+        List<String> keySet = new ArrayList<>(this.cache.keySet());
+        keySet.addAll(this.evictedData.keySet());
+        return keySet;
+    }
+
+
+    /**
+     * Returns number of islands in the cache.
+     *
+     * @return the size
+     */
+    public synchronized int size()
+    {
+        return this.cache.size();
+    }
+
+
+    /**
+     * This method evicts given island data, if island does not have online members and data was not used for the
+     * configured idle time.
+     *
+     * @param uniqueId the island id
+     */
+    public synchronized void evictIfIdle(String uniqueId)
+    {
+        long idleTime = this.addon.getSettings().getIslandCacheIdleTime() * 60_000L;
+        long lastUsed = this.lastAccess.getOrDefault(uniqueId, 0L);
+
+        if (System.currentTimeMillis() - lastUsed >= idleTime && !this.hasOnlineMembers(uniqueId))
+        {
+            BiomesIslandDataObject data = this.cache.remove(uniqueId);
+
+            if (data != null)
+            {
+                this.flush(uniqueId, data);
+            }
+        }
+    }
+
+
+    /**
+     * This method evicts all island data that was not used for the configured idle time.
+     */
+    public synchronized void evictIdle()
+    {
+        if (this.addon.getSettings().getIslandCacheIdleTime() <= 0)
+        {
+            // Idle eviction is disabled.
+            return;
+        }
+
+        new ArrayList<>(this.cache.keySet()).forEach(this::evictIfIdle);
+    }
+
+
+    /**
+     * This method saves evicted data asynchronously, if it has unsaved changes. Data is kept aside until save is
+     * finished.
+     *
+     * @param uniqueId the island id
+     * @param data the island data
+     */
+    private void flush(String uniqueId, BiomesIslandDataObject data)
+    {
+        this.lastAccess.remove(uniqueId);
+        this.unlockThresholds.remove(uniqueId);
+
+        if (this.dirtyData.remove(uniqueId) == null)
+        {
+            // Nothing to save.
+            return;
+        }
+
+        this.evictedData.put(uniqueId, data);
+        this.write(data).thenRun(() -> this.evictedData.remove(uniqueId, data));
+    }
+
+
+    /**
+     * This method writes island data to the database. If write fails, data is marked as dirty again, so it would be
+     * written with the next batch.
+     *
+     * @param data the island data
+     * @return the completable future that is completed when write is finished
+     */
+    private CompletableFuture<Void> write(BiomesIslandDataObject data)
+    {
+        return this.database.saveObjectAsync(data).handle((result, error) ->
+        {
+            if (error != null || !Boolean.TRUE.equals(result))
+            {
+                this.addon.logWarning("Could not save island data " + data.getUniqueId() + ". Retrying later.");
+                this.dirtyData.putIfAbsent(data.getUniqueId(), data);
+            }
+
+            return null;
+        });
+    }
+
+
+    /**
+     * Returns if any island member is online.
+     *
+     * @param uniqueId the island id
+     * @return {@code true} if island has online members
+     */
+    private boolean hasOnlineMembers(String uniqueId)
+    {
+        return this.addon.getIslands().getIslandById(uniqueId).
+            map(island -> island.getMemberSet().stream().map(Bukkit::getPlayer).anyMatch(player -> player != null)).
+            orElse(false);
+    }
+
+
+// ---------------------------------------------------------------------
+// Section: Variables
+// ---------------------------------------------------------------------
+
+
+    /**
+     * Instance of the addon.
+     */
+    private final BiomesAddon addon;
+
+    /**
+     * Island data database.
+     */
+    private final Database<BiomesIslandDataObject> database;
+
+    /**
+     * Cached island data in access order.
+     */
+    private final LinkedHashMap<String, BiomesIslandDataObject> cache;
+
+    /**
+     * Map that links island id with time when its data was used last time.
+     */
+    private final Map<String, Long> lastAccess;
+
+    /**
+     * Evicted island data that is being saved.
+     */
+    private final Map<String, BiomesIslandDataObject> evictedData;
+
+    /**
+     * Island data with changes that are not saved yet.
+     */
+    private final Map<String, BiomesIslandDataObject> dirtyData;
+
+    /**
+     * Map that links island id with the level that was processed by the last unlock check.
+     */
+    private final Map<String, BiomesAddonManager.UnlockThreshold> unlockThresholds;
+
+    /**
+     * Number of seconds since cache was created.
+     */
+    private long seconds;
+
+    /**
+     * Interval in seconds between idle data checks.
+     */
+    private static final long SWEEP_INTERVAL = 60L;
+
+    /**
+     * Time in milliseconds during which preloaded data is not evicted, if it is not used.
+     */
+    private static final long WARM_UP_WINDOW = 60 * 60_000L;
+}
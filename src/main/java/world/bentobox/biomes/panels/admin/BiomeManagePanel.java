@@ -44,7 +44,7 @@ public class BiomeManagePanel extends CommonPagedPanel<BiomesObject>
     {
         super(parentPanel);
         // Store bundles in local list to avoid building it every time.
-        this.elementList = this.manager.getBiomes(this.world);
+        this.elementList = new ArrayList<>(this.manager.getBiomes(this.world));
         this.filterElements = this.elementList;
 
         // Init set with selected bundles.
@@ -54,7 +54,6 @@ public class IslandEditPanel extends CommonPagedPanel<BiomesObject>
         super(panel);
 
         this.island = island;
-        this.islandData = this.addon.getAddonManager().getIslandData(island);
 
         this.title = this.island.getName();
 
@@ -75,9 +74,6 @@ public class IslandEditPanel extends CommonPagedPanel<BiomesObject>
                     Constants.PARAMETER_PLAYER, this.user.getTranslation(Constants.DESCRIPTIONS + "unknown"));
             }
         }
-
-        // Store generators in local list to avoid building it every time.
-        this.elementList = this.manager.getIslandBiomes(world, this.islandData);
     }
 
 
@@ -397,7 +393,16 @@ public class IslandEditPanel extends CommonPagedPanel<BiomesObject>
     public static void open(CommonPanel panel,
         Island island)
     {
-        new IslandEditPanel(panel, island).build();
+        IslandEditPanel editPanel = new IslandEditPanel(panel, island);
+
+        // Island data may be loaded asynchronously.
+        editPanel.manager.requestIslandData(island).thenAccept(data ->
+        {
+            editPanel.islandData = data;
+            // Store generators in local list to avoid building it every time.
+            editPanel.elementList = editPanel.manager.getIslandBiomes(editPanel.world, data);
+            editPanel.build();
+        });
     }
 
 
@@ -438,7 +443,7 @@ public class IslandEditPanel extends CommonPagedPanel<BiomesObject>
     /**
      * This variable stores generator data for this island.
      */
-    private final BiomesIslandDataObject islandData;
+    private BiomesIslandDataObject islandData;
 
     /**
      * Stores island title.
@@ -57,19 +57,32 @@ public class BiomesPanel extends CommonPanel
         super(addon, user, world, topLabel, permissionPrefix);
 
         this.island = this.addon.getIslands().getIsland(world, user);
-        // Get valid user island data
-        this.islandData = this.manager.validateIslandData(this.island);
-        // Store biomes in local list to avoid building it every time.
-        // Remove wrong environment biomes.
-        this.biomeList = this.manager.getIslandBiomes(world, this.islandData).stream().
-            filter(biome -> biome.getEnvironment().equals(user.getWorld().getEnvironment())).
-            filter(biomesObject -> this.addon.getSettings().isUseSingleMenu() ||
-                this.islandData != null && this.manager.isPurchased(this.islandData, biomesObject)).
-            collect(Collectors.toList());
-
-        this.numberOfPurchasableBiomes = this.manager.getIslandBiomes(this.world, this.islandData).stream().
-            filter(biomesObject -> this.islandData != null && !this.manager.isPurchased(this.islandData, biomesObject)).
-            count();
+    }
+
+
+    /**
+     * This method validates island data, which may be loaded asynchronously, and builds panel when data is
+     * available.
+     */
+    private void validateAndBuild()
+    {
+        this.manager.validateIslandData(this.island).thenAccept(data ->
+        {
+            this.islandData = data;
+            // Store biomes in local list to avoid building it every time.
+            // Remove wrong environment biomes.
+            this.biomeList = this.manager.getIslandBiomes(this.world, this.islandData).stream().
+                filter(biome -> biome.getEnvironment().equals(this.user.getWorld().getEnvironment())).
+                filter(biomesObject -> this.addon.getSettings().isUseSingleMenu() ||
+                    this.islandData != null && this.manager.isPurchased(this.islandData, biomesObject)).
+                collect(Collectors.toList());
+
+            this.numberOfPurchasableBiomes = this.manager.getIslandBiomes(this.world, this.islandData).stream().
+                filter(biomesObject -> this.islandData != null && !this.manager.isPurchased(this.islandData, biomesObject)).
+                count();
+
+            this.build();
+        });
     }
 
 
@@ -612,7 +625,7 @@ public class BiomesPanel extends CommonPanel
         String topLabel,
         String permissionPrefix)
     {
-        new BiomesPanel(addon, world, user, topLabel, permissionPrefix).build();
+        new BiomesPanel(addon, world, user, topLabel, permissionPrefix).validateAndBuild();
     }
 
 
@@ -623,7 +636,7 @@ public class BiomesPanel extends CommonPanel
     /**
      * List of biomes that user can change.
      */
-    private final List<BiomesObject> biomeList;
+    private List<BiomesObject> biomeList;
 
     /**
      * The island which biome is changed.
@@ -633,12 +646,12 @@ public class BiomesPanel extends CommonPanel
     /**
      * Target island data object.
      */
-    private final BiomesIslandDataObject islandData;
+    private BiomesIslandDataObject islandData;
 
     /**
      * Stores how many biomes player can still purchase.
      */
-    private final long numberOfPurchasableBiomes;
+    private long numberOfPurchasableBiomes;
 
     /**
      * This will be used for paging.
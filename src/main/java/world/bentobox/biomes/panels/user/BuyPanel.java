@@ -56,15 +56,6 @@ public class BuyPanel extends CommonPanel
         super(addon, user, world, topLabel, permissionPrefix);
 
         this.island = this.addon.getIslands().getIsland(world, user);
-        // Get valid user island data
-        this.islandData = this.manager.validateIslandData(this.island);
-        // Store biomes in local list to avoid building it every time.
-        // Remove wrong environment biomes.
-        this.biomeList = this.manager.getIslandBiomes(world, this.islandData).stream().
-            filter(biome -> biome.getEnvironment().equals(user.getWorld().getEnvironment())).
-            filter(biomesObject -> this.islandData != null && !this.manager.isPurchased(this.islandData, biomesObject)).
-            collect(Collectors.toList());
-
     }
 
 
@@ -78,15 +69,27 @@ public class BuyPanel extends CommonPanel
         super(parentPanel);
 
         this.island = this.addon.getIslands().getIsland(world, user);
-        // Get valid user island data
-        this.islandData = this.manager.validateIslandData(this.island);
-        // Store biomes in local list to avoid building it every time.
-        // Remove wrong environment biomes.
-        this.biomeList = this.manager.getIslandBiomes(world, this.islandData).stream().
-            filter(biome -> biome.getEnvironment().equals(user.getWorld().getEnvironment())).
-            filter(biomesObject -> this.islandData != null && !this.manager.isPurchased(this.islandData, biomesObject)).
-            collect(Collectors.toList());
+    }
+
+
+    /**
+     * This method validates island data, which may be loaded asynchronously, and builds panel when data is
+     * available.
+     */
+    private void validateAndBuild()
+    {
+        this.manager.validateIslandData(this.island).thenAccept(data ->
+        {
+            this.islandData = data;
+            // Store biomes in local list to avoid building it every time.
+            // Remove wrong environment biomes.
+            this.biomeList = this.manager.getIslandBiomes(this.world, this.islandData).stream().
+                filter(biome -> biome.getEnvironment().equals(this.user.getWorld().getEnvironment())).
+                filter(biomesObject -> this.islandData != null && !this.manager.isPurchased(this.islandData, biomesObject)).
+                collect(Collectors.toList());
 
+            this.build();
+        });
     }
 
 
@@ -505,7 +508,7 @@ public class BuyPanel extends CommonPanel
         String topLabel,
         String permissionPrefix)
     {
-        new BuyPanel(addon, world, user, topLabel, permissionPrefix).build();
+        new BuyPanel(addon, world, user, topLabel, permissionPrefix).validateAndBuild();
     }
 
 
@@ -516,7 +519,7 @@ public class BuyPanel extends CommonPanel
      */
     public static void open(CommonPanel parentPanel)
     {
-        new BuyPanel(parentPanel).build();
+        new BuyPanel(parentPanel).validateAndBuild();
     }
 
 
@@ -527,7 +530,7 @@ public class BuyPanel extends CommonPanel
     /**
      * List of biomes that user can change.
      */
-    private final List<BiomesObject> biomeList;
+    private List<BiomesObject> biomeList;
 
     /**
      * The island which biome is changed.
@@ -537,7 +540,7 @@ public class BuyPanel extends CommonPanel
     /**
      * Target island data object.
      */
-    private final BiomesIslandDataObject islandData;
+    private BiomesIslandDataObject islandData;
 
     /**
      * This will be used for paging.
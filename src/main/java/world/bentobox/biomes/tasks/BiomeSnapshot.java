@@ -0,0 +1,597 @@
+///
+// Created by BONNe
+// Copyright - 2022
+///
+
+package world.bentobox.biomes.tasks;
+
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.bukkit.Chunk;
+import org.bukkit.World;
+import org.bukkit.block.Biome;
+import org.bukkit.util.BlockVector;
+
+import world.bentobox.biomes.utils.Utils;
+
+
+/**
+ * This class stores biomes that were in the area before biome update task changed them. Biomes of each chunk are
+ * stored as a palette and run-length encoded palette indexes of 4x4x4 biome cells, in y, z, x order.
+ */
+public class BiomeSnapshot
+{
+    /**
+     * Instantiates a new Biome snapshot.
+     *
+     * @param taskId Id of the task that created snapshot.
+     * @param islandId Id of the island, can be null.
+     * @param worldName Name of the world.
+     * @param time Time when snapshot was created.
+     */
+    public BiomeSnapshot(UUID taskId, String islandId, String worldName, long time)
+    {
+        this.taskId = taskId;
+        this.islandId = islandId;
+        this.worldName = worldName;
+        this.time = time;
+        this.chunks = new ConcurrentHashMap<>();
+        this.unknownBiomes = new HashSet<>();
+    }
+
+
+// ---------------------------------------------------------------------
+// Section: Methods
+// ---------------------------------------------------------------------
+
+
+    /**
+     * This method stores current biomes of chunk data area. If the chunk is already captured, it is not overwritten,
+     * as the first capture contains the original biomes.
+     *
+     * @param chunk the chunk
+     * @param chunkData area that will be changed
+     */
+    public void capture(Chunk chunk, BiomeUpdateTask.ChunkData chunkData)
+    {
+        long key = PendingBiomeChanges.chunkKey(chunkData.chunkX(), chunkData.chunkZ());
+
+        if (this.chunks.containsKey(key))
+        {
+            return;
+        }
+
+        final World world = chunk.getWorld();
+        final int minHeight = world.getMinHeight();
+        final int maxHeight = world.getMaxHeight();
+
+        int minCellY = Math.max(chunkData.minY(), minHeight) >> 2;
+        int maxCellY = Math.min(chunkData.maxY(), maxHeight - 1) >> 2;
+
+        if (maxCellY < minCellY)
+        {
+            return;
+        }
+
+        ChunkBiomes chunkBiomes = new ChunkBiomes(chunkData.chunkX(),
+            chunkData.chunkZ(),
+            chunkData.minX() >> 2,
+            minCellY,
+            chunkData.minZ() >> 2,
+            chunkData.maxX() >> 2,
+            maxCellY,
+            chunkData.maxZ() >> 2,
+            new ArrayList<>(),
+            null);
+
+        short[] cells = new short[chunkBiomes.size()];
+        int index = 0;
+
+        for (int y = chunkBiomes.minY(); y <= chunkBiomes.maxY(); y++)
+        {
+            for (int z = chunkBiomes.minZ(); z <= chunkBiomes.maxZ(); z++)
+            {
+                for (int x = chunkBiomes.minX(); x <= chunkBiomes.maxX(); x++)
+                {
+                    Biome biome = world.getBiome(x << 2, y << 2, z << 2);
+                    int paletteIndex = chunkBiomes.palette().indexOf(biome);
+
+                    if (paletteIndex < 0)
+                    {
+                        paletteIndex = chunkBiomes.palette().size();
+                        chunkBiomes.palette().add(biome);
+                    }
+
+                    cells[index++] = (short) paletteIndex;
+                }
+            }
+        }
+
+        this.chunks.putIfAbsent(key, chunkBiomes.withRuns(encode(cells)));
+    }
+
+
+    /**
+     * This method writes stored biomes back in the chunk. Only cells that have a different biome and are accepted by
+     * cell filter are written. Cells which biome is not known by the server are left unchanged.
+     *
+     * @param writer the biome writer
+     * @param chunk the chunk
+     * @param chunkData area that must be restored
+     * @param cellFilter the cell filter
+     * @return number of written cells
+     */
+    public int restore(BiomeWriter writer,
+        Chunk chunk,
+        BiomeUpdateTask.ChunkData chunkData,
+        BiomeWriter.CellFilter cellFilter)
+    {
+        ChunkBiomes chunkBiomes = this.chunks.get(PendingBiomeChanges.chunkKey(chunkData.chunkX(),
+            chunkData.chunkZ()));
+
+        if (chunkBiomes == null)
+        {
+            return 0;
+        }
+
+        final short[] cells = decode(chunkBiomes.runs(), chunkBiomes.size());
+        final World world = chunk.getWorld();
+
+        int written = 0;
+
+        // Each biome from the palette is written separately, so any biome writer can be used.
+        for (int paletteIndex = 0; paletteIndex < chunkBiomes.palette().size(); paletteIndex++)
+        {
+            final Biome biome = chunkBiomes.palette().get(paletteIndex);
+            final int cellIndex = paletteIndex;
+
+            if (biome == null)
+            {
+                // Biome is not known by the server.
+                continue;
+            }
+
+            BiomeWriter.CellFilter storedFilter = (x, y, z) ->
+            {
+                int index = chunkBiomes.indexOf(x >> 2, y >> 2, z >> 2);
+                return index >= 0 && cells[index] == cellIndex && world.getBiome(x, y, z) != biome;
+            };
+
+            written += writer.writeBiomes(chunk,
+                chunkBiomes.minX() << 2, chunkBiomes.minY() << 2, chunkBiomes.minZ() << 2,
+                (chunkBiomes.maxX() << 2) + 3, (chunkBiomes.maxY() << 2) + 3, (chunkBiomes.maxZ() << 2) + 3,
+                biome,
+                cellFilter.and(storedFilter));
+        }
+
+        return written;
+    }
+
+
+    /**
+     * Returns if snapshot does not contain any chunk.
+     *
+     * @return {@code true} if snapshot is empty.
+     */
+    public boolean isEmpty()
+    {
+        return this.chunks.isEmpty();
+    }
+
+
+    /**
+     * Returns the minimal block coordinate that is stored in snapshot.
+     *
+     * @return the min coordinate
+     */
+    public BlockVector getMinCoordinate()
+    {
+        Collection<ChunkBiomes> values = this.chunks.values();
+
+        return new BlockVector(values.stream().mapToInt(ChunkBiomes::minX).min().orElse(0) << 2,
+            values.stream().mapToInt(ChunkBiomes::minY).min().orElse(0) << 2,
+            values.stream().mapToInt(ChunkBiomes::minZ).min().orElse(0) << 2);
+    }
+
+
+    /**
+     * Returns the maximal block coordinate that is stored in snapshot.
+     *
+     * @return the max coordinate
+     */
+    public BlockVector getMaxCoordinate()
+    {
+        Collection<ChunkBiomes> values = this.chunks.values();
+
+        return new BlockVector((values.stream().mapToInt(ChunkBiomes::maxX).max().orElse(0) << 2) + 3,
+            (values.stream().mapToInt(ChunkBiomes::maxY).max().orElse(0) << 2) + 3,
+            (values.stream().mapToInt(ChunkBiomes::maxZ).max().orElse(0) << 2) + 3);
+    }
+
+
+    /**
+     * This method writes snapshot in given output.
+     *
+     * @param output the output
+     * @throws IOException if snapshot cannot be written
+     */
+    public void write(DataOutputStream output) throws IOException
+    {
+        output.writeInt(FILE_VERSION);
+        output.writeLong(this.taskId.getMostSignificantBits());
+        output.writeLong(this.taskId.getLeastSignificantBits());
+        output.writeUTF(this.islandId == null ? "" : this.islandId);
+        output.writeUTF(this.worldName);
+        output.writeLong(this.time);
+
+        List<ChunkBiomes> values = new ArrayList<>(this.chunks.values());
+        output.writeInt(values.size());
+
+        for (ChunkBiomes chunkBiomes : values)
+        {
+            output.writeInt(chunkBiomes.chunkX());
+            output.writeInt(chunkBiomes.chunkZ());
+            output.writeInt(chunkBiomes.minX());
+            output.writeInt(chunkBiomes.minY());
+            output.writeInt(chunkBiomes.minZ());
+            output.writeInt(chunkBiomes.maxX());
+            output.writeInt(chunkBiomes.maxY());
+            output.writeInt(chunkBiomes.maxZ());
+
+            output.writeShort(chunkBiomes.palette().size());
+
+            for (Biome biome : chunkBiomes.palette())
+            {
+                output.writeUTF(biome.name());
+            }
+
+            output.writeInt(chunkBiomes.runs().length);
+            output.write(chunkBiomes.runs());
+        }
+    }
+
+
+    /**
+     * This method reads snapshot header from given input. Chunks are read only if requested.
+     *
+     * @param input the input
+     * @param readChunks {@code true} if chunk biomes must be read.
+     * @return the biome snapshot
+     * @throws IOException if snapshot cannot be read
+     */
+    public static BiomeSnapshot read(DataInputStream input, boolean readChunks) throws IOException
+    {
+        if (input.readInt() != FILE_VERSION)
+        {
+            throw new IOException("Unknown biome snapshot format");
+        }
+
+        UUID taskId = new UUID(input.readLong(), input.readLong());
+        String islandId = input.readUTF();
+
+        BiomeSnapshot biomeSnapshot = new BiomeSnapshot(taskId,
+            islandId.isEmpty() ? null : islandId,
+            input.readUTF(),
+            input.readLong());
+
+        if (!readChunks)
+        {
+            return biomeSnapshot;
+        }
+
+        Map<String, Biome> biomeMap = Utils.getBiomeNameMap();
+
+        for (int count = input.readInt(); count > 0; count--)
+        {
+            int chunkX = input.readInt();
+            int chunkZ = input.readInt();
+            int minX = input.readInt();
+            int minY = input.readInt();
+            int minZ = input.readInt();
+            int maxX = input.readInt();
+            int maxY = input.readInt();
+            int maxZ = input.readInt();
+
+            List<Biome> palette = new ArrayList<>();
+
+            for (int paletteSize = input.readShort(); paletteSize > 0; paletteSize--)
+            {
+                String biomeName = input.readUTF();
+                Biome biome = biomeMap.get(biomeName);
+
+                if (biome == null)
+                {
+                    // Unknown biomes are kept as null, so palette indexes stay the same and their cells are skipped.
+                    biomeSnapshot.unknownBiomes.add(biomeName);
+                }
+
+                palette.add(biome);
+            }
+
+            byte[] runs = new byte[input.readInt()];
+            input.readFully(runs);
+
+            biomeSnapshot.chunks.put(PendingBiomeChanges.chunkKey(chunkX, chunkZ),
+                new ChunkBiomes(chunkX, chunkZ, minX, minY, minZ, maxX, maxY, maxZ, palette, runs));
+        }
+
+        return biomeSnapshot;
+    }
+
+
+    /**
+     * This method run-length encodes given palette indexes. Each run is stored as variable length run length and
+     * variable length palette index.
+     *
+     * @param cells the palette indexes
+     * @return the encoded runs
+     */
+    static byte[] encode(short[] cells)
+    {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        int index = 0;
+
+        while (index < cells.length)
+        {
+            int start = index;
+
+            while (index < cells.length && cells[index] == cells[start])
+            {
+                index++;
+            }
+
+            writeVarInt(output, index - start);
+            writeVarInt(output, cells[start]);
+        }
+
+        return output.toByteArray();
+    }
+
+
+    /**
+     * This method decodes run-length encoded palette indexes.
+     *
+     * @param runs the encoded runs
+     * @param size number of cells
+     * @return the palette indexes
+     */
+    static short[] decode(byte[] runs, int size)
+    {
+        short[] cells = new short[size];
+
+        int[] position = new int[1];
+        int index = 0;
+
+        while (position[0] < runs.length && index < size)
+        {
+            int length = readVarInt(runs, position);
+            short paletteIndex = (short) readVarInt(runs, position);
+
+            for (int end = Math.min(size, index + length); index < end; index++)
+            {
+                cells[index] = paletteIndex;
+            }
+        }
+
+        return cells;
+    }
+
+
+    /**
+     * This method writes variable length integer.
+     *
+     * @param output the output
+     * @param value the value
+     */
+    private static void writeVarInt(ByteArrayOutputStream output, int value)
+    {
+        while ((value & ~0x7F) != 0)
+        {
+            output.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+
+        output.write(value);
+    }
+
+
+    /**
+     * This method reads variable length integer.
+     *
+     * @param bytes the bytes
+     * @param position position in bytes array, it is moved after the value
+     * @return the value
+     */
+    private static int readVarInt(byte[] bytes, int[] position)
+    {
+        int value = 0;
+        int shift = 0;
+        byte current;
+
+        do
+        {
+            current = bytes[position[0]++];
+            value |= (current & 0x7F) << shift;
+            shift += 7;
+        }
+        while ((current & 0x80) != 0 && position[0] < bytes.length);
+
+        return value;
+    }
+
+
+// ---------------------------------------------------------------------
+// Section: Getters
+// ---------------------------------------------------------------------
+
+
+    /**
+     * Gets task id.
+     *
+     * @return the task id
+     */
+    public UUID getTaskId()
+    {
+        return this.taskId;
+    }
+
+
+    /**
+     * Gets island id.
+     *
+     * @return the island id
+     */
+    public String getIslandId()
+    {
+        return this.islandId;
+    }
+
+
+    /**
+     * Gets world name.
+     *
+     * @return the world name
+     */
+    public String getWorldName()
+    {
+        return this.worldName;
+    }
+
+
+    /**
+     * Gets time when snapshot was created.
+     *
+     * @return the time
+     */
+    public long getTime()
+    {
+        return this.time;
+    }
+
+
+    /**
+     * Gets names of stored biomes that are not known by the server.
+     *
+     * @return the unknown biome names
+     */
+    public Set<String> getUnknownBiomes()
+    {
+        return this.unknownBiomes;
+    }
+
+
+// ---------------------------------------------------------------------
+// Section: Classes
+// ---------------------------------------------------------------------
+
+
+    /**
+     * The record that contains biomes of a single chunk. Coordinates are in biome cells.
+     */
+    private record ChunkBiomes(int chunkX, int chunkZ,
+                               int minX, int minY, int minZ,
+                               int maxX, int maxY, int maxZ,
+                               List<Biome> palette,
+                               byte[] runs)
+    {
+        /**
+         * Returns number of stored cells.
+         *
+         * @return the size
+         */
+        int size()
+        {
+            return (this.maxX - this.minX + 1) * (this.maxY - this.minY + 1) * (this.maxZ - this.minZ + 1);
+        }
+
+
+        /**
+         * Returns index of given cell or -1 if cell is not stored.
+         *
+         * @param x cell x
+         * @param y cell y
+         * @param z cell z
+         * @return the index
+         */
+        int indexOf(int x, int y, int z)
+        {
+            if (x < this.minX || x > this.maxX || y < this.minY || y > this.maxY || z < this.minZ || z > this.maxZ)
+            {
+                return -1;
+            }
+
+            return ((y - this.minY) * (this.maxZ - this.minZ + 1) + (z - this.minZ)) * (this.maxX - this.minX + 1) +
+                x - this.minX;
+        }
+
+
+        /**
+         * Returns copy of this record with given runs.
+         *
+         * @param runs the runs
+         * @return the chunk biomes
+         */
+        ChunkBiomes withRuns(byte[] runs)
+        {
+            return new ChunkBiomes(this.chunkX, this.chunkZ,
+                this.minX, this.minY, this.minZ,
+                this.maxX, this.maxY, this.maxZ,
+                this.palette,
+                runs);
+        }
+    }
+
+
+// ---------------------------------------------------------------------
+// Section: Variables
+// ---------------------------------------------------------------------
+
+
+    /**
+     * Id of the task that created snapshot.
+     */
+    private final UUID taskId;
+
+    /**
+     * Id of the island.
+     */
+    private final String islandId;
+
+    /**
+     * Name of the world.
+     */
+    private final String worldName;
+
+    /**
+     * Time when snapshot was created.
+     */
+    private final long time;
+
+    /**
+     * Map that links chunk keys with their biomes.
+     */
+    private final Map<Long, ChunkBiomes> chunks;
+
+    /**
+     * Names of stored biomes that are not known by the server.
+     */
+    private final Set<String> unknownBiomes;
+
+    /**
+     * Version of the stored file format.
+     */
+    private static final int FILE_VERSION = 1;
+}
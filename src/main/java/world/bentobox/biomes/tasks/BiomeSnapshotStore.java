@@ -0,0 +1,334 @@
+///
+// Created by BONNe
+// Copyright - 2022
+///
+
+package world.bentobox.biomes.tasks;
+
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.bukkit.Bukkit;
+
+import world.bentobox.biomes.BiomesAddon;
+
+
+/**
+ * This class stores biome snapshots of island changes, so they could be reverted later. Snapshots are written in the
+ * addon data folder and a few of the most recently used snapshots are kept in memory. Only the configured number of
+ * latest snapshots are kept for each island.
+ */
+public class BiomeSnapshotStore
+{
+    /**
+     * Instantiates a new Biome snapshot store.
+     *
+     * @param addon the addon
+     */
+    public BiomeSnapshotStore(BiomesAddon addon)
+    {
+        this.addon = addon;
+        this.folder = new File(addon.getDataFolder(), "snapshots");
+        this.islandSnapshots = new HashMap<>();
+
+        this.cache = new LinkedHashMap<>(MEMORY_SIZE, 0.75f, true)
+        {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, BiomeSnapshot> eldest)
+            {
+                return this.size() > MEMORY_SIZE;
+            }
+        };
+    }
+
+
+// ---------------------------------------------------------------------
+// Section: Methods
+// ---------------------------------------------------------------------
+
+
+    /**
+     * This method reads headers of stored snapshots and builds island index.
+     */
+    public synchronized void load()
+    {
+        File[] files = this.folder.listFiles((dir, name) -> name.endsWith(FILE_EXTENSION));
+
+        if (files == null)
+        {
+            return;
+        }
+
+        Map<String, Deque<BiomeSnapshot>> headers = new HashMap<>();
+
+        for (File file : files)
+        {
+            try (DataInputStream input = this.openInput(file))
+            {
+                BiomeSnapshot header = BiomeSnapshot.read(input, false);
+
+                if (header.getIslandId() != null)
+                {
+                    headers.computeIfAbsent(header.getIslandId(), id -> new ArrayDeque<>()).add(header);
+                }
+            }
+            catch (Exception e)
+            {
+                this.addon.logWarning("Could not read biome snapshot " + file.getName() + ": " + e.getMessage());
+            }
+        }
+
+        headers.forEach((islandId, snapshots) ->
+            snapshots.stream().
+                sorted((first, second) -> Long.compare(first.getTime(), second.getTime())).
+                forEach(header -> this.islandSnapshots.computeIfAbsent(islandId, id -> new ArrayDeque<>()).
+                    addLast(header.getTaskId())));
+    }
+
+
+    /**
+     * This method stores snapshot of finished task. Snapshot is written asynchronously and older snapshots of the
+     * same island are removed, if there are more than allowed.
+     *
+     * @param snapshot the snapshot
+     */
+    public synchronized void add(BiomeSnapshot snapshot)
+    {
+        if (snapshot.isEmpty() || snapshot.getIslandId() == null)
+        {
+            return;
+        }
+
+        this.cache.put(snapshot.getTaskId(), snapshot);
+
+        Deque<UUID> snapshots = this.islandSnapshots.computeIfAbsent(snapshot.getIslandId(), id -> new ArrayDeque<>());
+        snapshots.addLast(snapshot.getTaskId());
+
+        while (snapshots.size() > Math.max(1, this.addon.getSettings().getUndoHistory()))
+        {
+            this.remove(snapshots.pollFirst());
+        }
+
+        Bukkit.getScheduler().runTaskAsynchronously(this.addon.getPlugin(), () -> this.write(snapshot));
+    }
+
+
+    /**
+     * This method removes the latest snapshot of given island and returns it. Snapshot is read from disk
+     * asynchronously, and returned future is completed on the main thread.
+     *
+     * @param islandId the island id
+     * @return the future with the latest snapshot or {@code null} if island does not have any.
+     */
+    public CompletableFuture<BiomeSnapshot> pollLatest(String islandId)
+    {
+        final UUID taskId;
+        final BiomeSnapshot cachedSnapshot;
+
+        synchronized (this)
+        {
+            Deque<UUID> snapshots = this.islandSnapshots.get(islandId);
+
+            if (snapshots == null || snapshots.isEmpty())
+            {
+                return CompletableFuture.completedFuture(null);
+            }
+
+            taskId = snapshots.pollLast();
+            cachedSnapshot = this.cache.remove(taskId);
+        }
+
+        CompletableFuture<BiomeSnapshot> result = new CompletableFuture<>();
+
+        Bukkit.getScheduler().runTaskAsynchronously(this.addon.getPlugin(), () ->
+        {
+            BiomeSnapshot snapshot = cachedSnapshot == null ? this.read(taskId) : cachedSnapshot;
+
+            synchronized (this)
+            {
+                this.remove(taskId);
+            }
+
+            Bukkit.getScheduler().runTask(this.addon.getPlugin(), () ->
+            {
+                if (snapshot == null)
+                {
+                    // Snapshot could not be read, so the previous one is used.
+                    this.pollLatest(islandId).thenAccept(result::complete);
+                }
+                else
+                {
+                    result.complete(snapshot);
+                }
+            });
+        });
+
+        return result;
+    }
+
+
+    /**
+     * This method removes snapshot from memory and disk.
+     *
+     * @param taskId the task id
+     */
+    private void remove(UUID taskId)
+    {
+        this.cache.remove(taskId);
+
+        File file = this.getFile(taskId);
+
+        if (file.exists() && !file.delete())
+        {
+            this.addon.logWarning("Could not remove " + file.getName());
+        }
+    }
+
+
+    /**
+     * This method writes snapshot in the snapshot folder.
+     *
+     * @param snapshot the snapshot
+     */
+    private void write(BiomeSnapshot snapshot)
+    {
+        if (!this.folder.exists() && !this.folder.mkdirs())
+        {
+            this.addon.logError("Could not create " + this.folder.getName() + " folder.");
+            return;
+        }
+
+        try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(
+            new GZIPOutputStream(new FileOutputStream(this.getFile(snapshot.getTaskId()))))))
+        {
+            snapshot.write(output);
+        }
+        catch (Exception e)
+        {
+            this.addon.logError("Could not save biome snapshot: " + e.getMessage());
+        }
+
+        synchronized (this)
+        {
+            Deque<UUID> snapshots = this.islandSnapshots.get(snapshot.getIslandId());
+
+            if (snapshots == null || !snapshots.contains(snapshot.getTaskId()))
+            {
+                // Snapshot was used or removed while it was written.
+                this.remove(snapshot.getTaskId());
+            }
+        }
+    }
+
+
+    /**
+     * This method reads snapshot from the snapshot folder.
+     *
+     * @param taskId the task id
+     * @return the snapshot or {@code null} if it cannot be read.
+     */
+    private BiomeSnapshot read(UUID taskId)
+    {
+        File file = this.getFile(taskId);
+
+        if (!file.exists())
+        {
+            return null;
+        }
+
+        try (DataInputStream input = this.openInput(file))
+        {
+            BiomeSnapshot snapshot = BiomeSnapshot.read(input, true);
+
+            if (!snapshot.getUnknownBiomes().isEmpty())
+            {
+                this.addon.logWarning("Biome snapshot " + file.getName() + " contains unknown biomes " +
+                    snapshot.getUnknownBiomes() + ". Their cells will not be restored.");
+            }
+
+            return snapshot;
+        }
+        catch (Exception e)
+        {
+            this.addon.logError("Could not load biome snapshot: " + e.getMessage());
+            return null;
+        }
+    }
+
+
+    /**
+     * Opens input stream for snapshot file.
+     *
+     * @param file the file
+     * @return the data input stream
+     * @throws IOException if file cannot be opened
+     */
+    private DataInputStream openInput(File file) throws IOException
+    {
+        return new DataInputStream(new BufferedInputStream(new GZIPInputStream(new FileInputStream(file))));
+    }
+
+
+    /**
+     * Returns file of given snapshot.
+     *
+     * @param taskId the task id
+     * @return the file
+     */
+    private File getFile(UUID taskId)
+    {
+        return new File(this.folder, taskId + FILE_EXTENSION);
+    }
+
+
+// ---------------------------------------------------------------------
+// Section: Variables
+// ---------------------------------------------------------------------
+
+
+    /**
+     * Instance of the addon.
+     */
+    private final BiomesAddon addon;
+
+    /**
+     * Folder where snapshots are stored.
+     */
+    private final File folder;
+
+    /**
+     * Map that links island id with its snapshot ids from the oldest to the newest.
+     */
+    private final Map<String, Deque<UUID>> islandSnapshots;
+
+    /**
+     * Recently used snapshots.
+     */
+    private final Map<UUID, BiomeSnapshot> cache;
+
+    /**
+     * Number of snapshots that are kept in memory.
+     */
+    private static final int MEMORY_SIZE = 8;
+
+    /**
+     * Extension of snapshot files.
+     */
+    private static final String FILE_EXTENSION = ".biomes.gz";
+}
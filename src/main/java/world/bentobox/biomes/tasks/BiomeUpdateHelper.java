@@ -452,6 +452,21 @@ public class BiomeUpdateHelper
 
         task.setMinCoordinate(this.minCoordinate);
         task.setMaxCoordinate(this.maxCoordinate);
+        task.setStartLocation(this.standingLocation);
+        task.setUpdateMode(this.updateMode);
+
+        if (this.island != null)
+        {
+            task.setIslandId(this.island.getUniqueId());
+
+            if (this.addon.getSettings().getUndoHistory() > 0)
+            {
+                task.setSnapshot(new BiomeSnapshot(task.getTaskId(),
+                    this.island.getUniqueId(),
+                    task.getWorld().getName(),
+                    System.currentTimeMillis()));
+            }
+        }
 
         Bukkit.getPluginManager().callEvent(new BiomePreChangeEvent(this.biome,
             this.targetUser,
@@ -501,6 +516,11 @@ public class BiomeUpdateHelper
             this.addon.getAddonManager().saveIslandData(this.islandData);
         }
 
+        if (this.paidMoney > 0)
+        {
+            task.setRefundHandler(fraction -> this.refundMoney(task, fraction));
+        }
+
         this.addon.getUpdateQueue().addUpdateTask(task).thenAccept((result) ->
         {
             switch (result)
@@ -528,6 +548,30 @@ public class BiomeUpdateHelper
                         " while standing on" +
                         " location=" + this.standingLocation.toVector());
                 }
+                case SUPERSEDED -> {
+                    Utils.sendMessage(this.callerUser,
+                        this.callerUser.getTranslation(Constants.MESSAGES + "superseded",
+                            "[biome]", this.biome.getFriendlyName()));
+
+                    this.addon.log(this.callerUser.getName() + " biome change to " +
+                        this.biome.getFriendlyName() + " was replaced by a newer change from" +
+                        " min=" + this.minCoordinate +
+                        " max=" + this.maxCoordinate +
+                        " while standing on" +
+                        " location=" + this.standingLocation.toVector());
+                }
+                case CANCELLED -> {
+                    Utils.sendMessage(this.callerUser,
+                        this.callerUser.getTranslation(Constants.MESSAGES + "cancelled",
+                            "[biome]", this.biome.getFriendlyName()));
+
+                    this.addon.log(this.callerUser.getName() + " biome change to " +
+                        this.biome.getFriendlyName() + " was cancelled from" +
+                        " min=" + this.minCoordinate +
+                        " max=" + this.maxCoordinate +
+                        " while standing on" +
+                        " location=" + this.standingLocation.toVector());
+                }
                 default -> {
                     Utils.sendMessage(this.callerUser, this.callerUser.getTranslation(Constants.ERRORS + "failed"));
 
@@ -545,7 +589,9 @@ public class BiomeUpdateHelper
                 this.island,
                 this.minCoordinate,
                 this.maxCoordinate,
-                result));
+                result,
+                task.getChangedCells(),
+                task.getSkippedChunks()));
         });
     }
 
@@ -567,6 +613,8 @@ public class BiomeUpdateHelper
             return;
         }
 
+        this.paidMoney = money;
+
         if (this.addon.getSettings().isUseBankAccount() && this.addon.isBankProvided())
         {
             BankManager bankManager = this.addon.getBankAddon().getBankManager();
@@ -597,6 +645,53 @@ public class BiomeUpdateHelper
     }
 
 
+    /**
+     * Method that returns part of the paid money, when biome change is not fully processed. Per block cost is
+     * returned proportionally to the unprocessed area. Other costs do not depend on the area, so they are returned
+     * in full, but only if the change is stopped before any chunk is processed.
+     *
+     * @param task Task which money is returned.
+     * @param fraction Part of the biome change that is not processed.
+     */
+    private void refundMoney(BiomeUpdateTask task, double fraction)
+    {
+        double money;
+
+        if (this.biome.getCostMode() == BiomesObject.CostMode.PER_BLOCK)
+        {
+            money = this.paidMoney * fraction;
+        }
+        else if (!this.fullyRefunded && task.getState().isFinal() && task.getProcessedChunks() == 0)
+        {
+            this.fullyRefunded = true;
+            money = this.paidMoney;
+        }
+        else
+        {
+            return;
+        }
+
+        if (money <= 0 || !this.addon.isEconomyProvided())
+        {
+            return;
+        }
+
+        if (this.addon.getSettings().isUseBankAccount() && this.addon.isBankProvided())
+        {
+            this.addon.getBankAddon().getBankManager().
+                deposit(this.callerUser, this.island, new Money(money), TxType.DEPOSIT);
+        }
+        else
+        {
+            this.addon.getVaultHook().deposit(this.callerUser, money);
+        }
+
+        Utils.sendMessage(this.callerUser,
+            this.callerUser.getTranslation(Constants.MESSAGES + "refunded",
+                TextVariables.NUMBER, this.addon.getVaultHook().format(money)));
+    }
+
+
     /**
      * Method that withdraws items for changing biome.
      *
@@ -1071,7 +1166,6 @@ public class BiomeUpdateHelper
      */
     public boolean hasPermissionToUpdateMode()
     {
-        // TODO: probably passing permission string to helper would be more efficient.
         return Utils.hasUserUpdateModePermission(this.callerUser,
             this.addon.getPlugin().getIWM().getPermissionPrefix(this.world),
             this.updateMode,
@@ -1155,4 +1249,14 @@ public class BiomeUpdateHelper
      * This variable stores maxCoordinate for area where biome is changed.
      */
     private BlockVector maxCoordinate;
+
+    /**
+     * This variable stores money that was withdrawn for biome change.
+     */
+    private double paidMoney;
+
+    /**
+     * This variable indicates if the whole paid money is already returned.
+     */
+    private boolean fullyRefunded;
 }
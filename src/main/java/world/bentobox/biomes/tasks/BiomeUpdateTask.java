@@ -6,21 +6,32 @@
 package world.bentobox.biomes.tasks;
 
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
 import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.DoubleConsumer;
+import java.util.stream.Collectors;
 
 import org.bukkit.Bukkit;
 import org.bukkit.Chunk;
+import org.bukkit.Location;
 import org.bukkit.World;
 import org.bukkit.block.Biome;
 import org.bukkit.util.BlockVector;
+import org.bukkit.util.BoundingBox;
 
 import world.bentobox.bentobox.api.user.User;
 import world.bentobox.bentobox.paperlib.PaperLib;
 import world.bentobox.bentobox.util.Util;
 import world.bentobox.biomes.BiomesAddon;
+import world.bentobox.biomes.config.Settings;
 import world.bentobox.biomes.database.objects.BiomesObject;
 import world.bentobox.biomes.utils.Constants;
 import world.bentobox.biomes.utils.Utils;
@@ -49,14 +60,24 @@ public class BiomeUpdateTask
         this.biomesObject = biome;
 
         this.chunksToUpdate = new ConcurrentLinkedQueue<>();
+        this.loadedChunks = new ConcurrentLinkedQueue<>();
         this.result = new CompletableFuture<>();
+        this.state = new AtomicReference<>(State.QUEUED);
 
         this.processCounter = new AtomicInteger(0);
+        this.loadingChunks = new AtomicInteger(0);
+        this.cellCounter = new AtomicInteger(0);
+        this.skippedChunkCounter = new AtomicInteger(0);
+        this.deferredChunkCounter = new AtomicInteger(0);
+
+        this.biomeWriter = new CellBiomeWriter();
+        this.taskId = UUID.randomUUID();
     }
 
 
     /**
-     * Update chunk queue based on min and max coordinate.
+     * Update chunk queue based on min and max coordinate. Chunks are ordered in a spiral around the start chunk,
+     * and chunks that are already loaded are placed in front, so player could see the change as soon as possible.
      */
     public void updateChunkQueue()
     {
@@ -65,16 +86,383 @@ public class BiomeUpdateTask
             return;
         }
 
+        final int startX;
+        final int startZ;
+
+        if (this.startLocation != null)
+        {
+            startX = this.startLocation.getBlockX() >> 4;
+            startZ = this.startLocation.getBlockZ() >> 4;
+        }
+        else
+        {
+            startX = (this.minCoordinate.getBlockX() + this.maxCoordinate.getBlockX()) >> 5;
+            startZ = (this.minCoordinate.getBlockZ() + this.maxCoordinate.getBlockZ()) >> 5;
+        }
+
+        List<ChunkData> chunkDataList = new ArrayList<>();
+
         for (int x = this.minCoordinate.getBlockX() >> 4, maxX = this.maxCoordinate.getBlockX() >> 4; x <= maxX; x++)
         {
             for (int z = this.minCoordinate.getBlockZ() >> 4, maxZ = this.maxCoordinate.getBlockZ() >> 4; z <= maxZ;
                 z++)
             {
-                this.chunksToUpdate.add(this.constructChunkData(x, z));
+                chunkDataList.add(this.constructChunkData(x, z));
             }
         }
 
+        Set<ChunkData> loadedChunkSet = chunkDataList.stream().
+            filter(chunkData -> this.world.isChunkLoaded(chunkData.chunkX(), chunkData.chunkZ())).
+            collect(Collectors.toSet());
+        this.initialLoadedChunks = loadedChunkSet.size();
+
+        chunkDataList.sort(Comparator.<ChunkData>comparingInt(chunkData -> loadedChunkSet.contains(chunkData) ? 0 : 1).
+            thenComparingInt(chunkData ->
+                Math.max(Math.abs(chunkData.chunkX() - startX), Math.abs(chunkData.chunkZ() - startZ))).
+            thenComparingDouble(chunkData ->
+                Math.atan2(chunkData.chunkZ() - startZ, chunkData.chunkX() - startX)));
+
+        this.chunksToUpdate.addAll(chunkDataList);
+
+        this.numberOfChunks = this.chunksToUpdate.size();
+        this.initialNumberOfChunks = this.numberOfChunks;
+    }
+
+
+    /**
+     * This method removes queued chunks which whole update area is inside given area. Used when a newer task will
+     * overwrite these chunks anyway.
+     *
+     * @param minCoordinate Minimal coordinate of the newer task.
+     * @param maxCoordinate Maximal coordinate of the newer task.
+     * @return List of removed chunks.
+     */
+    List<ChunkData> removeCoveredChunks(BlockVector minCoordinate, BlockVector maxCoordinate)
+    {
+        List<ChunkData> removedChunks = new ArrayList<>();
+
+        this.chunksToUpdate.removeIf(chunkData ->
+        {
+            boolean covered = minCoordinate.getBlockX() <= chunkData.minX() &&
+                minCoordinate.getBlockY() <= chunkData.minY() &&
+                minCoordinate.getBlockZ() <= chunkData.minZ() &&
+                maxCoordinate.getBlockX() >= chunkData.maxX() &&
+                maxCoordinate.getBlockY() >= chunkData.maxY() &&
+                maxCoordinate.getBlockZ() >= chunkData.maxZ();
+
+            if (covered)
+            {
+                removedChunks.add(chunkData);
+            }
+
+            return covered;
+        });
+
         this.numberOfChunks = this.chunksToUpdate.size();
+        return removedChunks;
+    }
+
+
+    /**
+     * This method completes task with {@link UpdateQueue.Result#SUPERSEDED} result. It is used when a newer task
+     * covers the whole area of this task before it is started.
+     *
+     * @param updateQueue the update queue
+     */
+    void supersede(UpdateQueue updateQueue)
+    {
+        if (this.complete(updateQueue, UpdateQueue.Result.SUPERSEDED))
+        {
+            this.chunksToUpdate.clear();
+            // Only the part that is not refunded yet by previous partial supersedes is returned.
+            this.refund(1.0);
+        }
+    }
+
+
+    /**
+     * This method completes task with {@link UpdateQueue.Result#CANCELLED} result. Queued and running tasks stop
+     * processing chunks and paid cost is returned for the part that is not processed yet.
+     *
+     * @param updateQueue the update queue
+     * @return {@code true} if task was cancelled by this call.
+     */
+    boolean cancel(UpdateQueue updateQueue)
+    {
+        if (!this.complete(updateQueue, UpdateQueue.Result.CANCELLED))
+        {
+            return false;
+        }
+
+        double fraction = this.getUnprocessedFraction();
+
+        this.chunksToUpdate.clear();
+        this.loadedChunks.clear();
+        this.refund(fraction);
+
+        return true;
+    }
+
+
+    /**
+     * Returns part of the initial task that is not processed yet. Chunks that are already requested for loading
+     * are counted as processed.
+     *
+     * @return the unprocessed part of the task from 0 to 1.
+     */
+    public double getUnprocessedFraction()
+    {
+        if (this.initialNumberOfChunks == 0)
+        {
+            return this.state.get() == State.QUEUED ? 1.0 : 0.0;
+        }
+
+        return Math.min(1.0,
+            1.0 * (this.chunksToUpdate.size() + this.loadedChunks.size()) / this.initialNumberOfChunks);
+    }
+
+
+    /**
+     * This method calls refund handler, if it is set. Parts that are already refunded are subtracted, so the
+     * whole task is never refunded more than once.
+     *
+     * @param fraction Part of the initial task that will not be processed.
+     */
+    synchronized void refund(double fraction)
+    {
+        double refundFraction = Math.min(fraction, 1.0 - this.refundedFraction);
+
+        if (this.refundHandler != null && refundFraction > 0)
+        {
+            this.refundedFraction += refundFraction;
+            this.refundHandler.accept(refundFraction);
+        }
+    }
+
+
+    /**
+     * This method removes already processed chunks from the chunk queue. Used when task is resumed.
+     *
+     * @param completedChunks Keys of chunks that are already processed.
+     */
+    public void removeCompletedChunks(Set<Long> completedChunks)
+    {
+        this.chunksToUpdate.removeIf(chunkData ->
+            completedChunks.contains(PendingBiomeChanges.chunkKey(chunkData.chunkX(), chunkData.chunkZ())));
+        this.numberOfChunks = this.chunksToUpdate.size();
+    }
+
+
+    /**
+     * Returns if this task and given task changes biome in at least one common chunk.
+     *
+     * @param other the other task
+     * @return {@code true} if tasks share a chunk.
+     */
+    public boolean overlaps(BiomeUpdateTask other)
+    {
+        return this.world.equals(other.world) &&
+            this.minCoordinate.getBlockX() >> 4 <= other.maxCoordinate.getBlockX() >> 4 &&
+            other.minCoordinate.getBlockX() >> 4 <= this.maxCoordinate.getBlockX() >> 4 &&
+            this.minCoordinate.getBlockZ() >> 4 <= other.maxCoordinate.getBlockZ() >> 4 &&
+            other.minCoordinate.getBlockZ() >> 4 <= this.maxCoordinate.getBlockZ() >> 4;
+    }
+
+
+    /**
+     * Processes the next available chunk on the main thread. Chunks that are not loaded are requested asynchronously
+     * and are processed by one of the next calls, as soon as they are available.
+     *
+     * @return {@code true} if any work was done, {@code false} if task has nothing to process right now.
+     */
+    public boolean processNextChunk()
+    {
+        LoadedChunk loadedChunk = this.loadedChunks.poll();
+
+        if (loadedChunk != null)
+        {
+            this.runBiomeChange(loadedChunk.chunkData(), loadedChunk.chunk(), false, loadedChunk.requestTime());
+            return true;
+        }
+
+        ChunkData chunkData = this.chunksToUpdate.peek();
+
+        if (chunkData == null || this.failed)
+        {
+            return false;
+        }
+
+        if (this.world.isChunkLoaded(chunkData.chunkX(), chunkData.chunkZ()))
+        {
+            this.chunksToUpdate.poll();
+            this.runBiomeChange(chunkData,
+                this.world.getChunkAt(chunkData.chunkX(), chunkData.chunkZ()),
+                true,
+                System.nanoTime());
+            return true;
+        }
+
+        if (this.addon.getSettings().isDeferUnloadedChunks() && !this.requiresLoadedChunks())
+        {
+            // Biome will be changed when chunk is loaded next time.
+            this.chunksToUpdate.poll();
+            this.deferChunk(chunkData);
+            return true;
+        }
+
+        if (this.loadingChunks.get() >= MAX_LOADING_CHUNKS)
+        {
+            // Wait till already requested chunks are loaded.
+            return false;
+        }
+
+        this.chunksToUpdate.poll();
+        this.loadingChunks.incrementAndGet();
+
+        final long requestTime = System.nanoTime();
+
+        chunkData.getChunk(this.world).whenComplete((chunk, error) ->
+        {
+            if (chunk == null)
+            {
+                this.failed = true;
+            }
+            else
+            {
+                this.loadedChunks.add(new LoadedChunk(chunkData, chunk, requestTime));
+            }
+
+            // Decrease only after chunk is added, so completion check would not miss it.
+            this.loadingChunks.decrementAndGet();
+        });
+
+        return true;
+    }
+
+
+    /**
+     * This method moves task from {@link State#QUEUED} to {@link State#RUNNING} state. It must be called on the main
+     * thread, as greenhouse mask for the update area is collected here, before any chunk is processed.
+     *
+     * @return {@code true} if task was started, {@code false} if it was already started or completed.
+     */
+    boolean start()
+    {
+        if (this.state.compareAndSet(State.QUEUED, State.RUNNING))
+        {
+            this.greenhouseMask = new GreenhouseMask(this.addon.getAddonManager().getGreenhouseAreas(this.world,
+                new BoundingBox(this.minCoordinate.getBlockX(),
+                    this.minCoordinate.getBlockY(),
+                    this.minCoordinate.getBlockZ(),
+                    this.maxCoordinate.getBlockX() + 1,
+                    this.maxCoordinate.getBlockY() + 1,
+                    this.maxCoordinate.getBlockZ() + 1)));
+            this.startTime = System.currentTimeMillis();
+            return true;
+        }
+
+        return false;
+    }
+
+
+    /**
+     * This method moves task to the final state that matches given result, removes it from running tasks and
+     * completes the result. Only the first call has effect, so task cannot be completed twice.
+     *
+     * @param updateQueue the update queue
+     * @param result the result
+     * @return {@code true} if task was completed by this call.
+     */
+    boolean complete(UpdateQueue updateQueue, UpdateQueue.Result result)
+    {
+        State finalState = switch (result)
+            {
+                case FINISHED, FAILED -> State.COMPLETED;
+                case TIMEOUT -> State.TIMED_OUT;
+                case SUPERSEDED, CANCELLED -> State.CANCELLED;
+            };
+
+        State currentState = this.state.get();
+
+        while (!currentState.isFinal())
+        {
+            if (this.state.compareAndSet(currentState, finalState))
+            {
+                updateQueue.getProcessStartMap().remove(this);
+                this.result.complete(result);
+                return true;
+            }
+
+            currentState = this.state.get();
+        }
+
+        return false;
+    }
+
+
+    /**
+     * Returns if task runs longer than allowed.
+     *
+     * @return {@code true} if task is running and is timed out.
+     */
+    boolean isTimedOut()
+    {
+        return this.state.get() == State.RUNNING &&
+            System.currentTimeMillis() - this.startTime > this.addon.getSettings().getChangeTimeout() * 60000;
+    }
+
+
+    /**
+     * This method completes task with {@link UpdateQueue.Result#TIMEOUT} result.
+     *
+     * @param updateQueue the update queue
+     */
+    void timeOut(UpdateQueue updateQueue)
+    {
+        if (this.complete(updateQueue, UpdateQueue.Result.TIMEOUT))
+        {
+            this.addon.logError(
+                "Biome change timed out after " + this.addon.getSettings().getChangeTimeout() + "m for user: " +
+                    this.user.getName());
+        }
+    }
+
+
+    /**
+     * This method checks if task is finished, failed or timed out and completes the result accordingly.
+     * It is used together with {@link #processNextChunk()}.
+     *
+     * @param updateQueue the update queue
+     * @return {@code true} if task is completed, {@code false} otherwise.
+     */
+    public boolean checkCompletion(UpdateQueue updateQueue)
+    {
+        if (this.state.get() != State.RUNNING)
+        {
+            return true;
+        }
+
+        if (this.failed)
+        {
+            this.complete(updateQueue, UpdateQueue.Result.FAILED);
+            return true;
+        }
+
+        if (this.isTimedOut())
+        {
+            this.timeOut(updateQueue);
+            return true;
+        }
+
+        // Order is important: loading chunks are moved to loaded chunks before counter is decreased.
+        if (this.loadingChunks.get() == 0 && this.loadedChunks.isEmpty() && this.chunksToUpdate.isEmpty())
+        {
+            updateQueue.updateTimer(System.currentTimeMillis() - this.startTime, this.getNumberOfChunks());
+            this.complete(updateQueue, UpdateQueue.Result.FINISHED);
+            return true;
+        }
+
+        return false;
     }
 
 
@@ -93,32 +481,26 @@ public class BiomeUpdateTask
                 this.addon.logError("scanChunk not on Primary Thread!");
             }
 
-            long runTime = System.currentTimeMillis() - updateQueue.getProcessStartMap().get(this);
+            if (this.state.get() != State.RUNNING || updateQueue.getTask().isCancelled())
+            {
+                // Task is already completed by queue, or queue is stopped and task will be resumed after restart.
+                return;
+            }
 
             // Timeout check
-            if (runTime > this.addon.getSettings().getChangeTimeout() * 60000)
+            if (this.isTimedOut())
             {
-                // Done
-                updateQueue.getProcessStartMap().remove(this);
-                this.result.complete(UpdateQueue.Result.TIMEOUT);
-                this.addon.logError(
-                    "Biome change timed out after " + this.addon.getSettings().getChangeTimeout() + "m for user: " +
-                        this.user.getName());
+                this.timeOut(updateQueue);
                 return;
             }
 
-            if (Boolean.TRUE.equals(result) && !updateQueue.getTask().isCancelled())
+            if (Boolean.TRUE.equals(result))
             {
-                // Increment counter for the biome change.
-                this.processCounter.incrementAndGet();
-
                 if (this.chunksToUpdate.isEmpty())
                 {
                     // Done there are no more things to process
-                    updateQueue.updateTimer(runTime, this.getNumberOfChunks());
-                    updateQueue.getProcessStartMap().remove(this);
-
-                    this.result.complete(UpdateQueue.Result.FINISHED);
+                    updateQueue.updateTimer(System.currentTimeMillis() - this.startTime, this.getNumberOfChunks());
+                    this.complete(updateQueue, UpdateQueue.Result.FINISHED);
                 }
                 else
                 {
@@ -129,8 +511,7 @@ public class BiomeUpdateTask
             else
             {
                 // Done, result returned false.
-                updateQueue.getProcessStartMap().remove(this);
-                this.result.complete(UpdateQueue.Result.FAILED);
+                this.complete(updateQueue, UpdateQueue.Result.FAILED);
             }
         });
     }
@@ -155,213 +536,641 @@ public class BiomeUpdateTask
 
         ChunkData chunkData = this.chunksToUpdate.poll();
 
+        if (this.addon.getSettings().isDeferUnloadedChunks() &&
+            !this.world.isChunkLoaded(chunkData.chunkX(), chunkData.chunkZ()))
+        {
+            // Biome will be changed when chunk is loaded next time.
+            this.deferChunk(chunkData);
+            return CompletableFuture.completedFuture(true);
+        }
+
+        final boolean loaded = this.world.isChunkLoaded(chunkData.chunkX(), chunkData.chunkZ());
+        final long requestTime = System.nanoTime();
+
         chunkData.getChunk(this.world).thenAccept(chunk ->
-            this.scanChunk(chunkData, chunk).thenAccept(completed::complete));
+            this.scanChunk(chunkData, chunk, loaded, requestTime).thenAccept(completed::complete));
+
+        return completed;
+    }
+
+
+    /**
+     * This method scans given chunk and updates biome in it based on chunk data.
+     *
+     * @param chunkData the chunk data
+     * @param chunk the chunk
+     * @param loaded indicates if chunk was loaded before it was requested
+     * @param requestTime time when chunk was requested, in nanoseconds
+     * @return the completable future
+     */
+    private CompletableFuture<Boolean> scanChunk(ChunkData chunkData, Chunk chunk, boolean loaded, long requestTime)
+    {
+        CompletableFuture<Boolean> completed = new CompletableFuture<>();
+
+        if (chunk == null)
+        {
+            completed.complete(false);
+            return completed;
+        }
+
+        if (PaperLib.isPaper())
+        {
+            AtomicInteger asyncChanges = this.addon.getUpdateQueue().getAsyncChanges();
+            asyncChanges.incrementAndGet();
+
+            Bukkit.getScheduler().runTaskAsynchronously(this.addon.getPlugin(), () ->
+            {
+                try
+                {
+                    this.runBiomeChange(chunkData, chunk, loaded, requestTime);
+                }
+                finally
+                {
+                    asyncChanges.decrementAndGet();
+                }
+
+                completed.complete(true);
+            });
+        }
+        else
+        {
+            Bukkit.getScheduler().runTask(this.addon.getPlugin(), () ->
+            {
+                this.runBiomeChange(chunkData, chunk, loaded, requestTime);
+                completed.complete(true);
+            });
+        }
 
         return completed;
     }
 
 
     /**
-     * This method scans given chunk and updates biome in it based on chunk data.
+     * Returns estimated time till this task is finished, if chunks take as long as the slowest 5% of chunks.
+     *
+     * @return the estimated time in milliseconds
+     */
+    public double getEstimatedMaxTime()
+    {
+        ChunkTimeEstimator estimator = this.addon.getUpdateQueue().getEstimator();
+        double defaultTime = ChunkTimeEstimator.DEFAULT_CHUNK_TIME;
+
+        double loadedRatio = this.initialNumberOfChunks == 0 ? 0 :
+            1.0 * this.initialLoadedChunks / this.initialNumberOfChunks;
+
+        double chunkTime = loadedRatio * estimator.getChunkTimeP95(this.world, this.updateMode, true, defaultTime) +
+            (1 - loadedRatio) * estimator.getChunkTimeP95(this.world, this.updateMode, false, defaultTime);
+
+        return this.getRemainingChunks() * chunkTime;
+    }
+
+
+    /**
+     * Returns estimated time till this task is finished.
+     *
+     * @return the estimated time in milliseconds
+     */
+    public double getEstimatedTime()
+    {
+        ChunkTimeEstimator estimator = this.addon.getUpdateQueue().getEstimator();
+        double defaultTime = ChunkTimeEstimator.DEFAULT_CHUNK_TIME;
+
+        double loadedRatio = this.initialNumberOfChunks == 0 ? 0 :
+            1.0 * this.initialLoadedChunks / this.initialNumberOfChunks;
+
+        double chunkTime = loadedRatio * estimator.getChunkTime(this.world, this.updateMode, true, defaultTime) +
+            (1 - loadedRatio) * estimator.getChunkTime(this.world, this.updateMode, false, defaultTime);
+
+        return this.getRemainingChunks() * chunkTime;
+    }
+
+
+    /**
+     * Returns if chunks must be loaded to process them. Old biomes can be read and restored only in loaded chunks.
+     *
+     * @return {@code true} if task stores or restores biome snapshot.
+     */
+    private boolean requiresLoadedChunks()
+    {
+        return this.snapshot != null || this.restoreSnapshot != null;
+    }
+
+
+    /**
+     * This method stores biome change for chunk that is not loaded. It will be applied on the next chunk load.
+     *
+     * @param chunkData the chunk data
+     */
+    private void deferChunk(ChunkData chunkData)
+    {
+        this.addon.getUpdateQueue().getPendingChanges().addChange(this.world, chunkData, this.biome);
+        // Deferred chunk is applied from pending changes after restart, so resumed task must skip it.
+        this.addon.getUpdateQueue().getJournal().logChunk(this.taskId, chunkData.chunkX(), chunkData.chunkZ());
+        this.deferredChunkCounter.incrementAndGet();
+        this.processCounter.incrementAndGet();
+    }
+
+
+    /**
+     * This method changes biome for given chunk.
+     *
+     * @param chunkData the chunk data
+     * @param chunk the chunk
+     * @param loaded indicates if chunk was loaded before it was requested
+     * @param requestTime time when chunk was requested, in nanoseconds
+     */
+    private void runBiomeChange(ChunkData chunkData, Chunk chunk, boolean loaded, long requestTime)
+    {
+        // Biome should not be changed in Greenhouses.
+        BiomeWriter.CellFilter cellFilter = this.greenhouseMask.getFilter(chunkData.chunkX(),
+            chunkData.chunkZ(),
+            chunkData.minY(),
+            chunkData.maxY());
+
+        int cells;
+
+        if (this.restoreSnapshot != null)
+        {
+            cells = this.restoreSnapshot.restore(this.biomeWriter, chunk, chunkData, cellFilter);
+        }
+        else
+        {
+            if (this.snapshot != null)
+            {
+                this.snapshot.capture(chunk, chunkData);
+            }
+
+            cells = writeChunkBiome(this.biomeWriter, chunk, chunkData, this.biome, cellFilter);
+        }
+
+        // Chunk cost contains loading and waiting for the processing thread, as they take most of the time.
+        this.addon.getUpdateQueue().getEstimator().record(this.world,
+            this.updateMode,
+            loaded,
+            System.nanoTime() - requestTime);
+
+        this.cellCounter.addAndGet(cells);
+
+        if (cells == 0)
+        {
+            // Nothing is changed, so chunk does not need to be resent to players.
+            this.skippedChunkCounter.incrementAndGet();
+        }
+        else if (this.addon.getSettings().isUseChunkRefresh())
+        {
+            this.addon.getUpdateQueue().getRefreshQueue().addChunk(chunk);
+        }
+
+        this.addon.getUpdateQueue().getJournal().logChunk(this.taskId, chunkData.chunkX(), chunkData.chunkZ());
+
+        // Increment counter for the biome change.
+        this.processCounter.incrementAndGet();
+    }
+
+
+    /**
+     * This method writes given biome in chunk data area. Only cells that are accepted by cell filter and have a
+     * different biome are written.
+     *
+     * @param writer the biome writer
+     * @param chunk the chunk
+     * @param chunkData the chunk data
+     * @param biome the biome
+     * @param cellFilter the cell filter
+     * @return the number of changed cells
+     */
+    static int writeChunkBiome(BiomeWriter writer,
+        Chunk chunk,
+        ChunkData chunkData,
+        Biome biome,
+        BiomeWriter.CellFilter cellFilter)
+    {
+        // Only cells that have a different biome are written. Cells are compared while they are visited by the
+        // writer, so chunk does not need to be copied into a snapshot on the main thread first.
+        final World world = chunk.getWorld();
+
+        BiomeWriter.CellFilter changedFilter = (x, y, z) -> world.getBiome(x, y, z) != biome;
+
+        return writer.writeBiomes(chunk,
+            chunkData.minX(), chunkData.minY(), chunkData.minZ(),
+            chunkData.maxX(), chunkData.maxY(), chunkData.maxZ(),
+            biome,
+            cellFilter.and(changedFilter));
+    }
+
+
+    /**
+     * Gets chunk data.
+     *
+     * @param chunkX the chunk x
+     * @param chunkZ the chunk z
+     * @return the chunk data
+     */
+    private ChunkData constructChunkData(int chunkX, int chunkZ)
+    {
+        int minX, minZ, maxX, maxZ;
+
+        // transform to chunk coordinates
+        if (this.minCoordinate.getBlockX() >> 4 == chunkX)
+        {
+            minX = this.minCoordinate.getBlockX();
+        }
+        else
+        {
+            minX = chunkX << 4;
+        }
+
+        if (this.maxCoordinate.getBlockX() >> 4 == chunkX)
+        {
+            maxX = this.maxCoordinate.getBlockX();
+        }
+        else
+        {
+            maxX = (chunkX << 4) + 15;
+        }
+
+        if (this.minCoordinate.getBlockZ() >> 4 == chunkZ)
+        {
+            minZ = this.minCoordinate.getBlockZ();
+        }
+        else
+        {
+            minZ = chunkZ << 4;
+        }
+
+        if (this.maxCoordinate.getBlockZ() >> 4 == chunkZ)
+        {
+            maxZ = this.maxCoordinate.getBlockZ();
+        }
+        else
+        {
+            maxZ = (chunkZ << 4) + 15;
+        }
+
+        return new ChunkData(chunkX, chunkZ,
+            minX, this.minCoordinate.getBlockY(), minZ,
+            maxX, this.maxCoordinate.getBlockY(), maxZ);
+    }
+
+
+// ---------------------------------------------------------------------
+// Section: Setters
+// ---------------------------------------------------------------------
+
+
+    /**
+     * This method sets the world value.
+     *
+     * @param world the world new value.
+     */
+    public void setWorld(World world)
+    {
+        this.world = world;
+    }
+
+
+    /**
+     * Gets world.
+     *
+     * @return the world
+     */
+    public World getWorld()
+    {
+        return this.world;
+    }
+
+
+    /**
+     * Sets task id. Used when task is resumed.
+     *
+     * @param taskId the task id
+     */
+    public void setTaskId(UUID taskId)
+    {
+        this.taskId = taskId;
+    }
+
+
+    /**
+     * Sets refund handler. It receives a part of the initial task that will not be processed.
+     *
+     * @param refundHandler the refund handler
+     */
+    public void setRefundHandler(DoubleConsumer refundHandler)
+    {
+        this.refundHandler = refundHandler;
+    }
+
+
+    /**
+     * Sets id of the island where biome is changed.
+     *
+     * @param islandId the island id
+     */
+    public void setIslandId(String islandId)
+    {
+        this.islandId = islandId;
+    }
+
+
+    /**
+     * Sets snapshot that stores biomes before they are changed.
+     *
+     * @param snapshot the snapshot
+     */
+    public void setSnapshot(BiomeSnapshot snapshot)
+    {
+        this.snapshot = snapshot;
+    }
+
+
+    /**
+     * Sets snapshot which biomes must be restored instead of changing biome.
+     *
+     * @param restoreSnapshot the restore snapshot
+     */
+    public void setRestoreSnapshot(BiomeSnapshot restoreSnapshot)
+    {
+        this.restoreSnapshot = restoreSnapshot;
+    }
+
+
+    /**
+     * Sets update mode of the task.
+     *
+     * @param updateMode the update mode
+     */
+    public void setUpdateMode(Settings.UpdateMode updateMode)
+    {
+        this.updateMode = updateMode;
+    }
+
+
+    /**
+     * Sets location around which chunks are processed first.
+     *
+     * @param startLocation the start location
+     */
+    public void setStartLocation(Location startLocation)
+    {
+        this.startLocation = startLocation;
+    }
+
+
+    /**
+     * Sets min coordinate.
+     *
+     * @param minCoordinate the min coordinate
+     */
+    public void setMinCoordinate(BlockVector minCoordinate)
+    {
+        this.minCoordinate = minCoordinate;
+    }
+
+
+    /**
+     * Sets max coordinate.
+     *
+     * @param maxCoordinate the max coordinate
+     */
+    public void setMaxCoordinate(BlockVector maxCoordinate)
+    {
+        this.maxCoordinate = maxCoordinate;
+    }
+
+
+// ---------------------------------------------------------------------
+// Section: Getters
+// ---------------------------------------------------------------------
+
+
+    /**
+     * Gets task id.
+     *
+     * @return the task id
+     */
+    public UUID getTaskId()
+    {
+        return this.taskId;
+    }
+
+
+    /**
+     * Gets task state.
+     *
+     * @return the state
+     */
+    public State getState()
+    {
+        return this.state.get();
+    }
+
+
+    /**
+     * Gets time when task was started.
+     *
+     * @return the start time in milliseconds or {@code 0} if task is not started.
+     */
+    public long getStartTime()
+    {
+        return this.startTime;
+    }
+
+
+    /**
+     * Gets id of the island where biome is changed.
+     *
+     * @return the island id or {@code null} if it is not known.
+     */
+    public String getIslandId()
+    {
+        return this.islandId;
+    }
+
+
+    /**
+     * Gets snapshot that stores biomes before they are changed.
+     *
+     * @return the snapshot or {@code null} if biomes are not stored
+     */
+    public BiomeSnapshot getSnapshot()
+    {
+        return this.snapshot;
+    }
+
+
+    /**
+     * Gets number of chunks that are not processed yet.
      *
-     * @param chunkData the chunk data
-     * @param chunk the chunk
-     * @return the completable future
+     * @return the number of remaining chunks
      */
-    private CompletableFuture<Boolean> scanChunk(ChunkData chunkData, Chunk chunk)
+    public int getRemainingChunks()
     {
-        CompletableFuture<Boolean> completed = new CompletableFuture<>();
-
-        if (chunk == null)
-        {
-            completed.complete(false);
-            return completed;
-        }
-
-        if (PaperLib.isPaper())
-        {
-            Bukkit.getScheduler().runTaskAsynchronously(this.addon.getPlugin(),
-                () -> this.runBiomeChange(chunkData, chunk, completed));
-        }
-        else
-        {
-            Bukkit.getScheduler().runTask(this.addon.getPlugin(),
-                () -> this.runBiomeChange(chunkData, chunk, completed));
-        }
-
-        return completed;
+        return this.chunksToUpdate.size() + this.loadedChunks.size() + this.loadingChunks.get();
     }
 
 
     /**
-     * This method changes biome for given chunk.
+     * Gets user who started the task.
      *
-     * @param chunkData the chunk data
-     * @param chunk the chunk
-     * @param completed the completed
+     * @return the user
      */
-    @SuppressWarnings("deprecated")
-    private void runBiomeChange(ChunkData chunkData, Chunk chunk, CompletableFuture<Boolean> completed)
+    public User getUser()
     {
-        for (int x = chunkData.minX();
-            x <= chunkData.maxX();
-            x += 4)
-        {
-            for (int z = chunkData.minZ();
-                z <= chunkData.maxZ();
-                z += 4)
-            {
-                for (int y = chunkData.minY();
-                    y <= chunkData.maxY();
-                    y += 4)
-                {
-                    // Biome should not be changed in Greenhouses.
-                    if (!this.addon.getAddonManager().hasGreenhouseInLocation(this.world, x, y, z))
-                    {
-                        // Change Biome
-                        this.world.setBiome(x, y, z, this.biome);
-                    }
-                }
-            }
-        }
-
-        if (this.addon.getSettings().isUseChunkRefresh())
-        {
-            chunk.getWorld().refreshChunk(chunk.getX(), chunk.getZ());
-        }
-
-        completed.complete(true);
+        return this.user;
     }
 
 
     /**
-     * Gets chunk data.
+     * Gets biomes object.
      *
-     * @param chunkX the chunk x
-     * @param chunkZ the chunk z
-     * @return the chunk data
+     * @return the biomes object
      */
-    private ChunkData constructChunkData(int chunkX, int chunkZ)
+    public BiomesObject getBiomesObject()
     {
-        int minX, minZ, maxX, maxZ;
-
-        // transform to chunk coordinates
-        if (this.minCoordinate.getBlockX() >> 4 == chunkX)
-        {
-            minX = this.minCoordinate.getBlockX();
-        }
-        else
-        {
-            minX = chunkX << 4;
-        }
+        return this.biomesObject;
+    }
 
-        if (this.maxCoordinate.getBlockX() >> 4 == chunkX)
-        {
-            maxX = this.maxCoordinate.getBlockX();
-        }
-        else
-        {
-            maxX = (chunkX << 4) + 15;
-        }
 
-        if (this.minCoordinate.getBlockZ() >> 4 == chunkZ)
-        {
-            minZ = this.minCoordinate.getBlockZ();
-        }
-        else
-        {
-            minZ = chunkZ << 4;
-        }
+    /**
+     * Gets min coordinate.
+     *
+     * @return the min coordinate
+     */
+    public BlockVector getMinCoordinate()
+    {
+        return this.minCoordinate;
+    }
 
-        if (this.maxCoordinate.getBlockZ() >> 4 == chunkZ)
-        {
-            maxZ = this.maxCoordinate.getBlockZ();
-        }
-        else
-        {
-            maxZ = (chunkZ << 4) + 15;
-        }
 
-        return new ChunkData(chunkX, chunkZ,
-            minX, this.minCoordinate.getBlockY(), minZ,
-            maxX, this.maxCoordinate.getBlockY(), maxZ);
+    /**
+     * Gets max coordinate.
+     *
+     * @return the max coordinate
+     */
+    public BlockVector getMaxCoordinate()
+    {
+        return this.maxCoordinate;
     }
 
 
-// ---------------------------------------------------------------------
-// Section: Setters
-// ---------------------------------------------------------------------
+    /**
+     * Gets result.
+     *
+     * @return the result
+     */
+    public CompletableFuture<UpdateQueue.Result> getResult()
+    {
+        return this.result;
+    }
 
 
     /**
-     * This method sets the world value.
+     * Gets number of chunks.
      *
-     * @param world the world new value.
+     * @return the number of chunks
      */
-    public void setWorld(World world)
+    public int getNumberOfChunks()
     {
-        this.world = world;
+        return this.numberOfChunks;
     }
 
 
     /**
-     * Gets world.
+     * Gets number of chunks that were in the task when it was created.
      *
-     * @return the world
+     * @return the initial number of chunks
      */
-    public World getWorld()
+    public int getInitialNumberOfChunks()
     {
-        return this.world;
+        return this.initialNumberOfChunks;
     }
 
 
     /**
-     * Sets min coordinate.
+     * Gets number of changed biome cells.
      *
-     * @param minCoordinate the min coordinate
+     * @return the number of changed biome cells
      */
-    public void setMinCoordinate(BlockVector minCoordinate)
+    public int getChangedCells()
     {
-        this.minCoordinate = minCoordinate;
+        return this.cellCounter.get();
     }
 
 
     /**
-     * Sets max coordinate.
+     * Gets number of chunks which already had requested biome and were skipped.
      *
-     * @param maxCoordinate the max coordinate
+     * @return the number of skipped chunks
      */
-    public void setMaxCoordinate(BlockVector maxCoordinate)
+    public int getSkippedChunks()
     {
-        this.maxCoordinate = maxCoordinate;
+        return this.skippedChunkCounter.get();
     }
 
 
-// ---------------------------------------------------------------------
-// Section: Getters
-// ---------------------------------------------------------------------
+    /**
+     * Gets number of chunks which biome is changed or deferred.
+     *
+     * @return the number of processed chunks
+     */
+    public int getProcessedChunks()
+    {
+        return this.processCounter.get();
+    }
 
 
     /**
-     * Gets result.
+     * Gets number of chunks which were not loaded and will be changed on the next load.
      *
-     * @return the result
+     * @return the number of deferred chunks
      */
-    public CompletableFuture<UpdateQueue.Result> getResult()
+    public int getDeferredChunks()
     {
-        return this.result;
+        return this.deferredChunkCounter.get();
     }
 
 
     /**
-     * Gets number of chunks.
+     * Returns current progress of the task.
      *
-     * @return the number of chunks
+     * @return the progress snapshot
      */
-    public int getNumberOfChunks()
+    public Progress getProgress()
     {
-        return this.numberOfChunks;
+        State currentState = this.state.get();
+        int processedChunks = this.processCounter.get();
+
+        double chunksPerSecond = 0;
+        int estimatedTime = 0;
+        int estimatedMaxTime = 0;
+
+        if (currentState == State.RUNNING)
+        {
+            long elapsedTime = System.currentTimeMillis() - this.startTime;
+
+            if (elapsedTime > 0)
+            {
+                chunksPerSecond = processedChunks * 1000.0 / elapsedTime;
+            }
+
+            estimatedTime = (int) Math.ceil(this.getEstimatedTime() / 1000);
+            estimatedMaxTime = (int) Math.ceil(this.getEstimatedMaxTime() / 1000);
+        }
+        else if (currentState == State.QUEUED)
+        {
+            estimatedTime = this.addon.getUpdateQueue().getQueueTime(this);
+        }
+
+        return new Progress(this.taskId,
+            this.islandId,
+            this.biomesObject.getUniqueId(),
+            currentState,
+            processedChunks,
+            this.numberOfChunks,
+            chunksPerSecond,
+            estimatedTime,
+            estimatedMaxTime);
     }
 
 
@@ -375,7 +1184,7 @@ public class BiomeUpdateTask
             "[biome]", this.biomesObject.getFriendlyName(),
             "[number]", String.valueOf(this.getNumberOfChunks()),
             "[time]", String.valueOf((int)
-                Math.max(1, this.getNumberOfChunks() * this.addon.getUpdateQueue().getChunkTime()))));
+                Math.max(1, this.getEstimatedTime() / 1000))));
     }
 
 
@@ -386,7 +1195,51 @@ public class BiomeUpdateTask
     {
         Utils.sendMessage(this.user,
             this.user.getTranslation(Constants.MESSAGES + "waiting",
-                "[time]", String.valueOf(this.addon.getUpdateQueue().getQueueTime())));
+                "[time]", String.valueOf(this.addon.getUpdateQueue().getQueueTime(this))));
+    }
+
+
+// ---------------------------------------------------------------------
+// Section: Enums
+// ---------------------------------------------------------------------
+
+
+    /**
+     * The enum that describes task lifecycle.
+     */
+    public enum State
+    {
+        /**
+         * Task is in the queue and waits to be started.
+         */
+        QUEUED,
+        /**
+         * Task is processing chunks.
+         */
+        RUNNING,
+        /**
+         * Task is finished or failed.
+         */
+        COMPLETED,
+        /**
+         * Task ran longer than allowed.
+         */
+        TIMED_OUT,
+        /**
+         * Task was stopped before it was finished.
+         */
+        CANCELLED;
+
+
+        /**
+         * Returns if state cannot be changed anymore.
+         *
+         * @return {@code true} if state is final.
+         */
+        public boolean isFinal()
+        {
+            return this != QUEUED && this != RUNNING;
+        }
     }
 
 
@@ -399,7 +1252,7 @@ public class BiomeUpdateTask
      * The record that contains info about chunk coordinates and limit of blocks where biome must be updated inside
      * chunk.
      */
-    private record ChunkData(int chunkX, int chunkZ, int minX, int minY, int minZ, int maxX, int maxY, int maxZ)
+    record ChunkData(int chunkX, int chunkZ, int minX, int minY, int minZ, int maxX, int maxY, int maxZ)
     {
         /**
          * Gets chunk.
@@ -414,6 +1267,53 @@ public class BiomeUpdateTask
     }
 
 
+    /**
+     * The record that contains snapshot of task progress. It can be used in commands and panels.
+     *
+     * @param taskId the task id
+     * @param islandId the island id, can be null
+     * @param biomeId the biome id
+     * @param state the task state
+     * @param processedChunks number of processed chunks
+     * @param totalChunks number of chunks in the task
+     * @param chunksPerSecond average processing rate since task was started
+     * @param estimatedTime estimated time in seconds till task is finished
+     * @param estimatedMaxTime estimated time in seconds till task is finished, based on 95th percentile chunk time
+     */
+    public record Progress(UUID taskId,
+                           String islandId,
+                           String biomeId,
+                           State state,
+                           int processedChunks,
+                           int totalChunks,
+                           double chunksPerSecond,
+                           int estimatedTime,
+                           int estimatedMaxTime)
+    {
+        /**
+         * Returns processed part of the task in percents.
+         *
+         * @return the percentage of processed chunks
+         */
+        public int getPercentage()
+        {
+            return this.totalChunks == 0 ? 100 : Math.min(100, this.processedChunks * 100 / this.totalChunks);
+        }
+    }
+
+
+    /**
+     * The record that links chunk data with a chunk that was loaded asynchronously.
+     *
+     * @param chunkData the chunk data
+     * @param chunk the loaded chunk
+     * @param requestTime time when chunk was requested, in nanoseconds
+     */
+    private record LoadedChunk(ChunkData chunkData, Chunk chunk, long requestTime)
+    {
+    }
+
+
 // ---------------------------------------------------------------------
 // Section: Variables
 // ---------------------------------------------------------------------
@@ -429,6 +1329,11 @@ public class BiomeUpdateTask
      */
     private final Queue<ChunkData> chunksToUpdate;
 
+    /**
+     * The queue of chunks that are loaded and waits for biome update.
+     */
+    private final Queue<LoadedChunk> loadedChunks;
+
     /**
      * Instance of user who will be informed about update task.
      */
@@ -439,11 +1344,42 @@ public class BiomeUpdateTask
      */
     private final CompletableFuture<UpdateQueue.Result> result;
 
+    /**
+     * Current state of the task.
+     */
+    private final AtomicReference<State> state;
+
     /**
      * Instance of AtomicInteger that counts processed chunks.
      */
     private final AtomicInteger processCounter;
 
+    /**
+     * Instance of AtomicInteger that counts chunks which are requested for loading.
+     */
+    private final AtomicInteger loadingChunks;
+
+    /**
+     * Instance of AtomicInteger that counts written biome cells.
+     */
+    private final AtomicInteger cellCounter;
+
+    /**
+     * Instance of AtomicInteger that counts chunks which did not require any change.
+     */
+    private final AtomicInteger skippedChunkCounter;
+
+    /**
+     * Instance of AtomicInteger that counts chunks which biome change is deferred till chunk is loaded.
+     */
+    private final AtomicInteger deferredChunkCounter;
+
+    /**
+     * Instance of writer that changes biome in chunks.
+     */
+    private final BiomeWriter biomeWriter;
+
+
     /**
      * Instance of biome that is required to be changed.
      */
@@ -454,6 +1390,16 @@ public class BiomeUpdateTask
      */
     private final BiomesObject biomesObject;
 
+    /**
+     * Unique id of the task.
+     */
+    private UUID taskId;
+
+    /**
+     * Id of the island where biome is changed.
+     */
+    private String islandId;
+
     /**
      * Instance of world where update will be processed.
      */
@@ -469,8 +1415,68 @@ public class BiomeUpdateTask
      */
     private BlockVector maxCoordinate;
 
+    /**
+     * Update mode of the task or {@code null} if it is not known.
+     */
+    private Settings.UpdateMode updateMode;
+
+    /**
+     * Snapshot where biomes are stored before they are changed.
+     */
+    private BiomeSnapshot snapshot;
+
+    /**
+     * Snapshot which biomes are restored by this task.
+     */
+    private BiomeSnapshot restoreSnapshot;
+
+    /**
+     * Number of chunks that were loaded when task was created.
+     */
+    private int initialLoadedChunks;
+
+    /**
+     * Location around which chunks are processed first.
+     */
+    private Location startLocation;
+
     /**
      * The Number of chunks.
      */
     private int numberOfChunks;
+
+    /**
+     * The Number of chunks when task was created.
+     */
+    private int initialNumberOfChunks;
+
+    /**
+     * Handler that returns paid cost for chunks which will not be processed.
+     */
+    private DoubleConsumer refundHandler;
+
+    /**
+     * Part of the initial task that is already refunded.
+     */
+    private double refundedFraction;
+
+    /**
+     * Greenhouse areas inside update area. Collected on the main thread when task is started.
+     */
+    private volatile GreenhouseMask greenhouseMask;
+
+    /**
+     * Time when task was started.
+     */
+    private volatile long startTime;
+
+    /**
+     * Indicates that some chunk could not be loaded.
+     */
+    private volatile boolean failed;
+
+    /**
+     * The maximal number of chunks that single task may request for loading at the same time.
+     */
+    private static final int MAX_LOADING_CHUNKS = 4;
 }
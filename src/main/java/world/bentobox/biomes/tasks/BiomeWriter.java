@@ -0,0 +1,111 @@
+///
+// Created by BONNe
+// Copyright - 2022
+///
+
+package world.bentobox.biomes.tasks;
+
+
+import org.bukkit.Chunk;
+import org.bukkit.block.Biome;
+
+
+/**
+ * This interface describes how biome is written in the 4x4x4 biome cells of a single chunk.
+ */
+public interface BiomeWriter
+{
+    /**
+     * This method writes given biome in all biome cells that are inside given area of a chunk and are accepted
+     * by the filter.
+     *
+     * @param chunk Chunk where biome must be written.
+     * @param minX Minimal X coordinate.
+     * @param minY Minimal Y coordinate.
+     * @param minZ Minimal Z coordinate.
+     * @param maxX Maximal X coordinate.
+     * @param maxY Maximal Y coordinate.
+     * @param maxZ Maximal Z coordinate.
+     * @param biome Biome that must be written.
+     * @param filter Filter that decides which cells can be changed.
+     * @return Number of biome cells that were written.
+     */
+    int writeBiomes(Chunk chunk,
+        int minX, int minY, int minZ,
+        int maxX, int maxY, int maxZ,
+        Biome biome,
+        CellFilter filter);
+
+
+// ---------------------------------------------------------------------
+// Section: Classes
+// ---------------------------------------------------------------------
+
+
+    /**
+     * Filter that allows to skip biome cells or whole chunk sections.
+     */
+    @FunctionalInterface
+    interface CellFilter
+    {
+        /**
+         * Returns if biome cell at given block coordinates can be changed.
+         *
+         * @param x X coordinate.
+         * @param y Y coordinate.
+         * @param z Z coordinate.
+         * @return {@code true} if cell can be changed, {@code false} otherwise.
+         */
+        boolean test(int x, int y, int z);
+
+
+        /**
+         * Returns if any biome cell in given chunk section can be changed. Writers use it to skip whole sections
+         * without checking each cell.
+         *
+         * @param chunkX Chunk X coordinate.
+         * @param sectionY Section Y coordinate.
+         * @param chunkZ Chunk Z coordinate.
+         * @return {@code true} if section must be processed, {@code false} otherwise.
+         */
+        default boolean testSection(int chunkX, int sectionY, int chunkZ)
+        {
+            return true;
+        }
+
+
+        /**
+         * Returns filter that accepts only cells and sections which are accepted by this and the other filter.
+         *
+         * @param other the other filter
+         * @return the combined filter
+         */
+        default CellFilter and(CellFilter other)
+        {
+            final CellFilter self = this;
+
+            return new CellFilter()
+            {
+                @Override
+                public boolean test(int x, int y, int z)
+                {
+                    return self.test(x, y, z) && other.test(x, y, z);
+                }
+
+
+                @Override
+                public boolean testSection(int chunkX, int sectionY, int chunkZ)
+                {
+                    return self.testSection(chunkX, sectionY, chunkZ) && other.testSection(chunkX, sectionY, chunkZ);
+                }
+            };
+        }
+
+
+        /**
+         * Filter that accepts all cells.
+         */
+        CellFilter ALL = (x, y, z) -> true;
+    }
+
+}
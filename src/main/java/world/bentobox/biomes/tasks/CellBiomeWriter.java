@@ -0,0 +1,78 @@
+///
+// Created by BONNe
+// Copyright - 2022
+///
+
+package world.bentobox.biomes.tasks;
+
+
+import org.bukkit.Chunk;
+import org.bukkit.World;
+import org.bukkit.block.Biome;
+
+
+/**
+ * This writer changes biome by stepping through the update area by 4 blocks in each direction. Update area is
+ * converted into biome cell coordinates and clamped by chunk and world height, so each cell is written once, and
+ * chunk sections rejected by the filter are skipped without checking their cells.
+ */
+public class CellBiomeWriter implements BiomeWriter
+{
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int writeBiomes(Chunk chunk,
+        int minX, int minY, int minZ,
+        int maxX, int maxY, int maxZ,
+        Biome biome,
+        CellFilter filter)
+    {
+        World world = chunk.getWorld();
+
+        final int chunkX = chunk.getX();
+        final int chunkZ = chunk.getZ();
+
+        // Transform to biome cell coordinates.
+        final int minCellX = Math.max(minX, chunkX << 4) >> 2;
+        final int maxCellX = Math.min(maxX, (chunkX << 4) + 15) >> 2;
+        final int minCellZ = Math.max(minZ, chunkZ << 4) >> 2;
+        final int maxCellZ = Math.min(maxZ, (chunkZ << 4) + 15) >> 2;
+        final int minCellY = Math.max(minY, world.getMinHeight()) >> 2;
+        final int maxCellY = Math.min(maxY, world.getMaxHeight() - 1) >> 2;
+
+        int written = 0;
+
+        for (int sectionY = minCellY >> 2, maxSectionY = maxCellY >> 2; sectionY <= maxSectionY; sectionY++)
+        {
+            if (!filter.testSection(chunkX, sectionY, chunkZ))
+            {
+                continue;
+            }
+
+            final int fromCellY = Math.max(minCellY, sectionY << 2);
+            final int toCellY = Math.min(maxCellY, (sectionY << 2) + 3);
+
+            for (int cellY = fromCellY; cellY <= toCellY; cellY++)
+            {
+                for (int cellZ = minCellZ; cellZ <= maxCellZ; cellZ++)
+                {
+                    for (int cellX = minCellX; cellX <= maxCellX; cellX++)
+                    {
+                        final int x = cellX << 2;
+                        final int y = cellY << 2;
+                        final int z = cellZ << 2;
+
+                        if (filter.test(x, y, z))
+                        {
+                            world.setBiome(x, y, z, biome);
+                            written++;
+                        }
+                    }
+                }
+            }
+        }
+
+        return written;
+    }
+}
@@ -0,0 +1,210 @@
+///
+// Created by BONNe
+// Copyright - 2022
+///
+
+package world.bentobox.biomes.tasks;
+
+
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.bukkit.Chunk;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+
+import world.bentobox.biomes.BiomesAddon;
+
+
+/**
+ * This class collects chunks that must be resent to players after biome change. Each chunk is queued only once,
+ * even if several biome updates change it, and refreshes are sent from the main thread with a limit per tick.
+ * Chunks that are not seen by any player stay marked and are refreshed when a player comes close to them.
+ */
+public class ChunkRefreshQueue
+{
+    /**
+     * Instantiates a new Chunk refresh queue.
+     *
+     * @param addon the addon
+     */
+    public ChunkRefreshQueue(BiomesAddon addon)
+    {
+        this.addon = addon;
+        this.refreshQueue = new ConcurrentLinkedQueue<>();
+        this.queuedChunks = ConcurrentHashMap.newKeySet();
+        this.unseenChunks = ConcurrentHashMap.newKeySet();
+    }
+
+
+// ---------------------------------------------------------------------
+// Section: Methods
+// ---------------------------------------------------------------------
+
+
+    /**
+     * This method adds given chunk to the refresh queue, if it is not already there.
+     * Can be called from any thread.
+     *
+     * @param chunk Chunk that must be refreshed.
+     */
+    public void addChunk(Chunk chunk)
+    {
+        RefreshChunk refreshChunk = new RefreshChunk(chunk.getWorld(), chunk.getX(), chunk.getZ());
+
+        if (this.queuedChunks.add(refreshChunk))
+        {
+            this.unseenChunks.remove(refreshChunk);
+            this.refreshQueue.add(refreshChunk);
+        }
+    }
+
+
+    /**
+     * This method refreshes queued chunks till the limit per tick is reached. Chunks that are not in view distance
+     * of any player are marked as unseen and are queued again when some player can see them.
+     * Must be called from the main thread.
+     */
+    public void processRefreshes()
+    {
+        if (++this.tickCounter % UNSEEN_CHECK_INTERVAL == 0)
+        {
+            this.checkUnseenChunks();
+        }
+
+        if (this.refreshQueue.isEmpty())
+        {
+            return;
+        }
+
+        int limit = this.addon.getSettings().getChunkRefreshesPerTick();
+
+        for (int refreshed = 0; limit <= 0 || refreshed < limit; )
+        {
+            RefreshChunk refreshChunk = this.refreshQueue.poll();
+
+            if (refreshChunk == null)
+            {
+                break;
+            }
+
+            this.queuedChunks.remove(refreshChunk);
+
+            if (isViewed(refreshChunk))
+            {
+                refreshChunk.world().refreshChunk(refreshChunk.chunkX(), refreshChunk.chunkZ());
+                refreshed++;
+            }
+            else if (refreshChunk.world().isChunkLoaded(refreshChunk.chunkX(), refreshChunk.chunkZ()))
+            {
+                // Chunk could be cached by a client that is outside view distance now.
+                this.unseenChunks.add(refreshChunk);
+            }
+        }
+    }
+
+
+    /**
+     * This method queues unseen chunks that are in view distance of some player now. Chunks that are unloaded are
+     * forgotten, as clients receive the whole chunk again after it is loaded.
+     */
+    private void checkUnseenChunks()
+    {
+        Iterator<RefreshChunk> iterator = this.unseenChunks.iterator();
+
+        while (iterator.hasNext())
+        {
+            RefreshChunk refreshChunk = iterator.next();
+
+            if (!refreshChunk.world().isChunkLoaded(refreshChunk.chunkX(), refreshChunk.chunkZ()))
+            {
+                iterator.remove();
+            }
+            else if (isViewed(refreshChunk) && this.queuedChunks.add(refreshChunk))
+            {
+                iterator.remove();
+                this.refreshQueue.add(refreshChunk);
+            }
+        }
+    }
+
+
+    /**
+     * Returns if given chunk is in view distance of any player in its world. View distance of each player is
+     * limited by world view distance and by view distance of player client.
+     *
+     * @param refreshChunk the refresh chunk
+     * @return {@code true} if some player can see the chunk.
+     */
+    private static boolean isViewed(RefreshChunk refreshChunk)
+    {
+        final int worldViewDistance = refreshChunk.world().getViewDistance();
+
+        for (Player player : refreshChunk.world().getPlayers())
+        {
+            Location location = player.getLocation();
+            int viewDistance = Math.min(worldViewDistance, player.getClientViewDistance());
+
+            if (Math.abs((location.getBlockX() >> 4) - refreshChunk.chunkX()) <= viewDistance &&
+                Math.abs((location.getBlockZ() >> 4) - refreshChunk.chunkZ()) <= viewDistance)
+            {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+
+// ---------------------------------------------------------------------
+// Section: Classes
+// ---------------------------------------------------------------------
+
+
+    /**
+     * The record that identifies chunk that must be refreshed.
+     */
+    private record RefreshChunk(World world, int chunkX, int chunkZ)
+    {
+    }
+
+
+// ---------------------------------------------------------------------
+// Section: Variables
+// ---------------------------------------------------------------------
+
+
+    /**
+     * Instance of the addon.
+     */
+    private final BiomesAddon addon;
+
+    /**
+     * Queue of chunks in the order they were changed.
+     */
+    private final Queue<RefreshChunk> refreshQueue;
+
+    /**
+     * Set of chunks that are in refresh queue. Used to avoid duplicates.
+     */
+    private final Set<RefreshChunk> queuedChunks;
+
+    /**
+     * Set of loaded chunks that were changed while no player could see them.
+     */
+    private final Set<RefreshChunk> unseenChunks;
+
+    /**
+     * Number of processed ticks.
+     */
+    private long tickCounter;
+
+    /**
+     * Interval in ticks between checks of unseen chunks.
+     */
+    private static final int UNSEEN_CHECK_INTERVAL = 20;
+}
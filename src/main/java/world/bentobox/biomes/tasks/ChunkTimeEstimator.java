@@ -0,0 +1,266 @@
+///
+// Created by BONNe
+// Copyright - 2022
+///
+
+package world.bentobox.biomes.tasks;
+
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.bukkit.World;
+
+import world.bentobox.biomes.config.Settings;
+
+
+/**
+ * This class estimates how long it takes to change biome in a single chunk, from the chunk request till the biome is
+ * written. Measurements are grouped by world, update mode and by chunk being loaded or not, as these change the cost
+ * the most. Each group keeps exponentially
+ * weighted moving average and approximate 95th percentile of chunk time.
+ */
+public class ChunkTimeEstimator
+{
+    /**
+     * Instantiates a new Chunk time estimator.
+     */
+    public ChunkTimeEstimator()
+    {
+        this.statistics = new ConcurrentHashMap<>();
+    }
+
+
+// ---------------------------------------------------------------------
+// Section: Methods
+// ---------------------------------------------------------------------
+
+
+    /**
+     * This method stores how long biome change in a single chunk took, including chunk loading.
+     *
+     * @param world World where chunk is located.
+     * @param updateMode Update mode of the task or {@code null} if it is not known.
+     * @param loaded {@code true} if chunk was loaded before processing.
+     * @param nanos Time spent on chunk in nanoseconds.
+     */
+    public void record(World world, Settings.UpdateMode updateMode, boolean loaded, long nanos)
+    {
+        double millis = nanos / 1_000_000.0;
+
+        this.statistics.computeIfAbsent(new Key(world.getName(), updateMode, loaded), key -> new Statistic()).
+            add(millis);
+
+        if (updateMode != null)
+        {
+            this.statistics.computeIfAbsent(new Key(world.getName(), null, loaded), key -> new Statistic()).
+                add(millis);
+        }
+
+        this.statistics.computeIfAbsent(new Key(null, null, loaded), key -> new Statistic()).add(millis);
+    }
+
+
+    /**
+     * Returns average time per chunk in milliseconds. If there are no measurements for given update mode, measurements
+     * of the whole world are used, and then measurements of all worlds.
+     *
+     * @param world the world
+     * @param updateMode the update mode
+     * @param loaded {@code true} for chunks that are loaded.
+     * @param defaultTime Time that is returned if there are no measurements.
+     * @return the chunk time in milliseconds
+     */
+    public double getChunkTime(World world, Settings.UpdateMode updateMode, boolean loaded, double defaultTime)
+    {
+        Statistic statistic = this.getStatistic(world, updateMode, loaded);
+        return statistic == null ? defaultTime : statistic.getAverage();
+    }
+
+
+    /**
+     * Returns 95th percentile of time per chunk in milliseconds.
+     *
+     * @param world the world
+     * @param updateMode the update mode
+     * @param loaded {@code true} for chunks that are loaded.
+     * @param defaultTime Time that is returned if there are no measurements.
+     * @return the chunk time in milliseconds
+     */
+    public double getChunkTimeP95(World world, Settings.UpdateMode updateMode, boolean loaded, double defaultTime)
+    {
+        Statistic statistic = this.getStatistic(world, updateMode, loaded);
+        return statistic == null ? defaultTime : statistic.getPercentile(0.95);
+    }
+
+
+    /**
+     * Returns statistic for given key, falling back to the world statistic and to the statistic of all worlds.
+     *
+     * @param world the world
+     * @param updateMode the update mode
+     * @param loaded the loaded
+     * @return the statistic or {@code null} if there are no measurements.
+     */
+    private Statistic getStatistic(World world, Settings.UpdateMode updateMode, boolean loaded)
+    {
+        Statistic statistic = this.statistics.get(new Key(world.getName(), updateMode, loaded));
+
+        if (statistic == null)
+        {
+            statistic = this.statistics.get(new Key(world.getName(), null, loaded));
+        }
+
+        if (statistic == null)
+        {
+            statistic = this.statistics.get(new Key(null, null, loaded));
+        }
+
+        return statistic;
+    }
+
+
+// ---------------------------------------------------------------------
+// Section: Classes
+// ---------------------------------------------------------------------
+
+
+    /**
+     * Key of measurement group.
+     *
+     * @param world World name or {@code null} for all worlds.
+     * @param updateMode Update mode or {@code null} for all modes.
+     * @param loaded Indicates if chunks were loaded.
+     */
+    private record Key(String world, Settings.UpdateMode updateMode, boolean loaded)
+    {
+    }
+
+
+    /**
+     * Streaming statistic that keeps moving average and a logarithmic histogram for percentiles.
+     */
+    private static class Statistic
+    {
+        /**
+         * Adds new measurement.
+         *
+         * @param millis the time in milliseconds
+         */
+        synchronized void add(double millis)
+        {
+            this.average = this.count == 0 ? millis : this.average + (millis - this.average) * ALPHA;
+
+            int bucket = millis <= MIN_TIME ? 0 :
+                (int) Math.min(BUCKETS - 1, Math.ceil(Math.log(millis / MIN_TIME) / Math.log(BUCKET_GROWTH)));
+
+            this.histogram[bucket]++;
+            this.count++;
+
+            if (this.count >= MAX_COUNT)
+            {
+                // Halve old measurements, so histogram follows recent values.
+                this.count = 0;
+
+                for (int i = 0; i < BUCKETS; i++)
+                {
+                    this.histogram[i] /= 2;
+                    this.count += this.histogram[i];
+                }
+            }
+        }
+
+
+        /**
+         * Gets average.
+         *
+         * @return the average
+         */
+        synchronized double getAverage()
+        {
+            return this.average;
+        }
+
+
+        /**
+         * Returns upper bound of the bucket that contains given percentile.
+         *
+         * @param percentile the percentile between 0 and 1
+         * @return the time in milliseconds
+         */
+        synchronized double getPercentile(double percentile)
+        {
+            long target = (long) Math.ceil(this.count * percentile);
+            long sum = 0;
+
+            for (int i = 0; i < BUCKETS; i++)
+            {
+                sum += this.histogram[i];
+
+                if (sum >= target)
+                {
+                    return MIN_TIME * Math.pow(BUCKET_GROWTH, i);
+                }
+            }
+
+            return this.average;
+        }
+
+
+        /**
+         * Moving average in milliseconds.
+         */
+        private double average;
+
+        /**
+         * Number of measurements in histogram.
+         */
+        private long count;
+
+        /**
+         * Histogram buckets.
+         */
+        private final long[] histogram = new long[BUCKETS];
+    }
+
+
+// ---------------------------------------------------------------------
+// Section: Variables
+// ---------------------------------------------------------------------
+
+
+    /**
+     * Map of measurement groups.
+     */
+    private final Map<Key, Statistic> statistics;
+
+    /**
+     * Time per chunk in milliseconds that is used before any chunk is measured.
+     */
+    public static final double DEFAULT_CHUNK_TIME = 50.0;
+
+    /**
+     * Weight of the newest measurement in moving average.
+     */
+    private static final double ALPHA = 0.05;
+
+    /**
+     * Number of histogram buckets.
+     */
+    private static final int BUCKETS = 64;
+
+    /**
+     * Upper bound of the first bucket in milliseconds.
+     */
+    private static final double MIN_TIME = 0.01;
+
+    /**
+     * Growth of bucket bounds. 64 buckets cover times till about 13 seconds.
+     */
+    private static final double BUCKET_GROWTH = 1.25;
+
+    /**
+     * Number of measurements after which histogram is halved.
+     */
+    private static final long MAX_COUNT = 10_000;
+}
@@ -0,0 +1,316 @@
+///
+// Created by BONNe
+// Copyright - 2022
+///
+
+package world.bentobox.biomes.tasks;
+
+
+import java.lang.reflect.Method;
+
+import org.bukkit.Bukkit;
+
+import world.bentobox.biomes.BiomesAddon;
+
+
+/**
+ * This class adjusts number of running biome changes and the tick budget based on server tick time. It increases
+ * limits by one step while server has free time in each tick and halves them when target tick time is exceeded.
+ */
+public class ConcurrencyController
+{
+    /**
+     * Instantiates a new Concurrency controller.
+     *
+     * @param addon the addon
+     */
+    public ConcurrencyController(BiomesAddon addon)
+    {
+        this.addon = addon;
+        this.averageTickTimeMethod = findAverageTickTimeMethod();
+
+        this.concurrentTasks = 1;
+        this.tickBudget = 1;
+    }
+
+
+// ---------------------------------------------------------------------
+// Section: Methods
+// ---------------------------------------------------------------------
+
+
+    /**
+     * This method must be called at the start of each server tick. It measures time between ticks and adjusts
+     * limits once per second.
+     */
+    public void onTick()
+    {
+        long now = System.nanoTime();
+
+        if (this.lastTick > 0)
+        {
+            double interval = (now - this.lastTick) / 1_000_000.0;
+            this.tickInterval = this.tickInterval == 0 ?
+                interval : this.tickInterval + (interval - this.tickInterval) * ALPHA;
+        }
+
+        this.lastTick = now;
+
+        if (++this.tickCounter % ADJUST_INTERVAL == 0)
+        {
+            this.adjust();
+        }
+    }
+
+
+    /**
+     * This method stores how long chunk processing took in the current tick.
+     *
+     * @param nanos Time spent for processing chunks.
+     * @param chunks Number of processed chunks.
+     */
+    public void recordChunks(long nanos, int chunks)
+    {
+        if (chunks <= 0)
+        {
+            return;
+        }
+
+        double chunkTime = nanos / 1_000_000.0 / chunks;
+        this.chunkTime = this.chunkTime == 0 ? chunkTime : this.chunkTime + (chunkTime - this.chunkTime) * ALPHA;
+    }
+
+
+    /**
+     * This method increases or decreases limits based on measured tick time.
+     */
+    private void adjust()
+    {
+        int maxTasks = Math.max(1, this.addon.getSettings().getConcurrentBiomeUpdates());
+        long maxBudget = Math.max(1, this.addon.getSettings().getUpdateTickBudget());
+
+        if (this.isOverloaded())
+        {
+            this.concurrentTasks = Math.max(1, this.concurrentTasks / 2);
+            this.tickBudget = Math.max(1, this.tickBudget / 2);
+        }
+        else if (this.hasHeadroom())
+        {
+            this.concurrentTasks = Math.min(maxTasks, this.concurrentTasks + 1);
+            this.tickBudget = Math.min(maxBudget, this.tickBudget + 1);
+        }
+        else
+        {
+            // Settings could be reduced by reload.
+            this.concurrentTasks = Math.min(maxTasks, this.concurrentTasks);
+            this.tickBudget = Math.min(maxBudget, this.tickBudget);
+        }
+    }
+
+
+    /**
+     * Returns if server tick time is above the target.
+     *
+     * @return {@code true} if biome changes should be slowed down.
+     */
+    private boolean isOverloaded()
+    {
+        if (this.averageTickTimeMethod != null)
+        {
+            return this.getTickTime() > this.addon.getSettings().getTargetMspt();
+        }
+
+        // Without real tick time, only falling behind 20 TPS can be detected.
+        return this.tickInterval > SPIGOT_OVERLOAD_INTERVAL;
+    }
+
+
+    /**
+     * Returns if server has enough free time in each tick to process more chunks.
+     *
+     * @return {@code true} if biome changes can be speeded up.
+     */
+    private boolean hasHeadroom()
+    {
+        if (this.averageTickTimeMethod != null)
+        {
+            return this.getTickTime() + this.chunkTime < this.addon.getSettings().getTargetMspt() * HEADROOM;
+        }
+
+        return this.tickInterval <= SPIGOT_OVERLOAD_INTERVAL;
+    }
+
+
+    /**
+     * Returns server tick time in milliseconds. On Paper it is average tick time reported by server, on other
+     * servers it is average time between ticks.
+     *
+     * @return the tick time
+     */
+    public double getTickTime()
+    {
+        if (this.averageTickTimeMethod != null)
+        {
+            try
+            {
+                return ((Number) this.averageTickTimeMethod.invoke(Bukkit.getServer())).doubleValue();
+            }
+            catch (ReflectiveOperationException e)
+            {
+                this.addon.logError("Could not get average tick time: " + e.getMessage());
+                this.averageTickTimeMethod = null;
+            }
+        }
+
+        return this.tickInterval;
+    }
+
+
+    /**
+     * Returns number of chunks that can be processed in a single tick, based on tick budget and measured chunk time.
+     *
+     * @return the chunk allowance
+     */
+    public int getChunkAllowance()
+    {
+        if (this.chunkTime == 0)
+        {
+            return Integer.MAX_VALUE;
+        }
+
+        return (int) Math.max(1, this.tickBudget / this.chunkTime);
+    }
+
+
+    /**
+     * Finds Paper average tick time method.
+     *
+     * @return the method or {@code null} if server does not provide it.
+     */
+    private static Method findAverageTickTimeMethod()
+    {
+        try
+        {
+            return Bukkit.getServer().getClass().getMethod("getAverageTickTime");
+        }
+        catch (NoSuchMethodException e)
+        {
+            return null;
+        }
+    }
+
+
+// ---------------------------------------------------------------------
+// Section: Getters
+// ---------------------------------------------------------------------
+
+
+    /**
+     * Gets number of biome changes that can run at the same time.
+     *
+     * @return the concurrent tasks
+     */
+    public int getConcurrentTasks()
+    {
+        return this.concurrentTasks;
+    }
+
+
+    /**
+     * Gets tick budget in milliseconds.
+     *
+     * @return the tick budget
+     */
+    public long getTickBudget()
+    {
+        return this.tickBudget;
+    }
+
+
+    /**
+     * Gets average time per chunk in milliseconds.
+     *
+     * @return the chunk time
+     */
+    public double getChunkTime()
+    {
+        return this.chunkTime;
+    }
+
+
+    /**
+     * Returns if server reports real tick time.
+     *
+     * @return {@code true} if Paper tick time is used.
+     */
+    public boolean isUsingServerTickTime()
+    {
+        return this.averageTickTimeMethod != null;
+    }
+
+
+// ---------------------------------------------------------------------
+// Section: Variables
+// ---------------------------------------------------------------------
+
+
+    /**
+     * Instance of the addon.
+     */
+    private final BiomesAddon addon;
+
+    /**
+     * Paper method that returns average tick time.
+     */
+    private Method averageTickTimeMethod;
+
+    /**
+     * Current number of biome changes that can run at the same time.
+     */
+    private int concurrentTasks;
+
+    /**
+     * Current tick budget in milliseconds.
+     */
+    private long tickBudget;
+
+    /**
+     * Average time between ticks in milliseconds.
+     */
+    private double tickInterval;
+
+    /**
+     * Average time per chunk in milliseconds.
+     */
+    private double chunkTime;
+
+    /**
+     * Time of the last tick in nanoseconds.
+     */
+    private long lastTick;
+
+    /**
+     * Counts ticks between adjustments.
+     */
+    private long tickCounter;
+
+    /**
+     * Weight of the newest measurement in moving averages.
+     */
+    private static final double ALPHA = 0.1;
+
+    /**
+     * Number of ticks between adjustments.
+     */
+    private static final int ADJUST_INTERVAL = 20;
+
+    /**
+     * Part of the target tick time that must stay free before limits are increased.
+     */
+    private static final double HEADROOM = 0.9;
+
+    /**
+     * Time between ticks that indicates server is not able to keep 20 TPS.
+     */
+    private static final double SPIGOT_OVERLOAD_INTERVAL = 52.0;
+}
@@ -0,0 +1,215 @@
+///
+// Created by BONNe
+// Copyright - 2022
+///
+
+package world.bentobox.biomes.tasks;
+
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+import org.bukkit.util.BoundingBox;
+
+
+/**
+ * This class holds greenhouse areas that intersect biome update area. For each chunk it creates a filter that
+ * rejects biome cells inside greenhouses, so biome update does not need to look up greenhouses for each cell.
+ */
+class GreenhouseMask
+{
+    /**
+     * Instantiates a new Greenhouse mask.
+     *
+     * @param areas the greenhouse areas that intersect update area
+     */
+    GreenhouseMask(List<BoundingBox> areas)
+    {
+        this.areas = areas;
+    }
+
+
+    /**
+     * This method returns cell filter for given chunk. If chunk does not contain any greenhouse, then filter that
+     * accepts all cells is returned.
+     *
+     * @param chunkX Chunk X coordinate.
+     * @param chunkZ Chunk Z coordinate.
+     * @param minY Minimal Y coordinate of update area.
+     * @param maxY Maximal Y coordinate of update area.
+     * @return Cell filter for given chunk.
+     */
+    BiomeWriter.CellFilter getFilter(int chunkX, int chunkZ, int minY, int maxY)
+    {
+        if (this.areas.isEmpty())
+        {
+            return BiomeWriter.CellFilter.ALL;
+        }
+
+        final int blockX = chunkX << 4;
+        final int blockZ = chunkZ << 4;
+
+        List<BoundingBox> chunkAreas = new ArrayList<>(1);
+
+        for (BoundingBox area : this.areas)
+        {
+            if (area.getMinX() < blockX + 16 && area.getMaxX() > blockX &&
+                area.getMinZ() < blockZ + 16 && area.getMaxZ() > blockZ)
+            {
+                chunkAreas.add(area);
+            }
+        }
+
+        if (chunkAreas.isEmpty())
+        {
+            return BiomeWriter.CellFilter.ALL;
+        }
+
+        return new ChunkMask(chunkX, chunkZ, minY >> 2, maxY >> 2, chunkAreas);
+    }
+
+
+// ---------------------------------------------------------------------
+// Section: Classes
+// ---------------------------------------------------------------------
+
+
+    /**
+     * Bit mask of biome cells inside single chunk that are covered by greenhouses. Cells are indexed in the same
+     * order as chunk section stores them (y, z, x), so all cells of a section are next to each other.
+     */
+    private static class ChunkMask implements BiomeWriter.CellFilter
+    {
+        /**
+         * Builds mask for given chunk.
+         *
+         * @param chunkX Chunk X coordinate.
+         * @param chunkZ Chunk Z coordinate.
+         * @param minCellY Minimal biome cell Y coordinate.
+         * @param maxCellY Maximal biome cell Y coordinate.
+         * @param areas Greenhouse areas that intersect the chunk.
+         */
+        private ChunkMask(int chunkX, int chunkZ, int minCellY, int maxCellY, List<BoundingBox> areas)
+        {
+            this.minCellX = chunkX << 2;
+            this.minCellZ = chunkZ << 2;
+            this.minCellY = minCellY;
+            this.maxCellY = maxCellY;
+
+            this.excluded = new BitSet((maxCellY - minCellY + 1) << 4);
+
+            for (int cellY = minCellY; cellY <= maxCellY; cellY++)
+            {
+                for (int cellZ = 0; cellZ < 4; cellZ++)
+                {
+                    for (int cellX = 0; cellX < 4; cellX++)
+                    {
+                        final int x = (this.minCellX + cellX) << 2;
+                        final int y = cellY << 2;
+                        final int z = (this.minCellZ + cellZ) << 2;
+
+                        for (BoundingBox area : areas)
+                        {
+                            if (area.contains(x, y, z))
+                            {
+                                this.excluded.set(this.index(cellX, cellY, cellZ));
+                                break;
+                            }
+                        }
+                    }
+                }
+            }
+        }
+
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public boolean test(int x, int y, int z)
+        {
+            final int cellY = y >> 2;
+
+            if (cellY < this.minCellY || cellY > this.maxCellY)
+            {
+                return true;
+            }
+
+            return !this.excluded.get(this.index((x >> 2) - this.minCellX, cellY, (z >> 2) - this.minCellZ));
+        }
+
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public boolean testSection(int chunkX, int sectionY, int chunkZ)
+        {
+            final int fromCellY = Math.max(this.minCellY, sectionY << 2);
+            final int toCellY = Math.min(this.maxCellY, (sectionY << 2) + 3);
+
+            if (fromCellY > toCellY)
+            {
+                return true;
+            }
+
+            final int from = this.index(0, fromCellY, 0);
+            final int to = this.index(0, toCellY + 1, 0);
+
+            // Section must be processed if at least one cell is not covered by greenhouse.
+            return this.excluded.nextClearBit(from) < to;
+        }
+
+
+        /**
+         * Returns bit index for given cell.
+         *
+         * @param cellX Cell X coordinate inside chunk.
+         * @param cellY Cell Y coordinate.
+         * @param cellZ Cell Z coordinate inside chunk.
+         * @return Bit index.
+         */
+        private int index(int cellX, int cellY, int cellZ)
+        {
+            return ((cellY - this.minCellY) << 4) | ((cellZ & 3) << 2) | (cellX & 3);
+        }
+
+
+        /**
+         * Minimal biome cell X coordinate of the chunk.
+         */
+        private final int minCellX;
+
+        /**
+         * Minimal biome cell Z coordinate of the chunk.
+         */
+        private final int minCellZ;
+
+        /**
+         * Minimal biome cell Y coordinate.
+         */
+        private final int minCellY;
+
+        /**
+         * Maximal biome cell Y coordinate.
+         */
+        private final int maxCellY;
+
+        /**
+         * Cells that are covered by greenhouses.
+         */
+        private final BitSet excluded;
+    }
+
+
+// ---------------------------------------------------------------------
+// Section: Variables
+// ---------------------------------------------------------------------
+
+
+    /**
+     * Greenhouse areas that intersect update area.
+     */
+    private final List<BoundingBox> areas;
+}
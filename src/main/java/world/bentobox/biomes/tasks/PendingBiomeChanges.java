@@ -0,0 +1,402 @@
+///
+// Created by BONNe
+// Copyright - 2022
+///
+
+package world.bentobox.biomes.tasks;
+
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Chunk;
+import org.bukkit.World;
+import org.bukkit.block.Biome;
+import org.bukkit.util.BoundingBox;
+
+import world.bentobox.biomes.BiomesAddon;
+import world.bentobox.biomes.utils.Utils;
+
+
+/**
+ * This class stores biome changes for chunks that were not loaded while biome update was running. Changes are
+ * applied when the chunk is loaded next time. Each change of the store is written to the addon data folder
+ * asynchronously, so paid changes survive server crash and applied changes are not replayed after restart.
+ */
+public class PendingBiomeChanges
+{
+    /**
+     * Instantiates a new Pending biome changes store.
+     *
+     * @param addon the addon
+     */
+    public PendingBiomeChanges(BiomesAddon addon)
+    {
+        this.addon = addon;
+        this.pendingChanges = new ConcurrentHashMap<>();
+        this.file = new File(addon.getDataFolder(), "pending-biomes.dat");
+        this.saveScheduled = new AtomicBoolean(false);
+    }
+
+
+// ---------------------------------------------------------------------
+// Section: Methods
+// ---------------------------------------------------------------------
+
+
+    /**
+     * This method stores biome change for given chunk. Previous changes of the same chunk, that are fully covered by
+     * the new change, are dropped.
+     *
+     * @param world World where chunk is located.
+     * @param chunkData Chunk and area that must be changed.
+     * @param biome Biome that must be applied.
+     */
+    void addChange(World world, BiomeUpdateTask.ChunkData chunkData, Biome biome)
+    {
+        PendingChange change = new PendingChange(chunkData, biome);
+
+        // World map is changed inside compute, so it cannot be dropped by applyChanges at the same time.
+        this.pendingChanges.compute(world.getUID(), (id, worldChanges) ->
+        {
+            if (worldChanges == null)
+            {
+                worldChanges = new ConcurrentHashMap<>();
+            }
+
+            worldChanges.merge(chunkKey(chunkData.chunkX(), chunkData.chunkZ()), List.of(change),
+                (oldChanges, newChanges) ->
+                {
+                    List<PendingChange> changes = new ArrayList<>(oldChanges.size() + 1);
+
+                    oldChanges.stream().
+                        filter(oldChange -> !covers(chunkData, oldChange.chunkData())).
+                        forEach(changes::add);
+                    changes.add(change);
+
+                    return changes;
+                });
+
+            return worldChanges;
+        });
+
+        this.requestSave();
+    }
+
+
+    /**
+     * This method applies all stored biome changes for given chunk and removes them from the store.
+     *
+     * @param chunk Chunk that is loaded.
+     */
+    public void applyChanges(Chunk chunk)
+    {
+        if (this.pendingChanges.isEmpty())
+        {
+            return;
+        }
+
+        World world = chunk.getWorld();
+        List<List<PendingChange>> removedChanges = new ArrayList<>(1);
+
+        // Chunk changes are removed and empty world map is dropped atomically.
+        this.pendingChanges.computeIfPresent(world.getUID(), (id, worldChanges) ->
+        {
+            List<PendingChange> chunkChanges = worldChanges.remove(chunkKey(chunk.getX(), chunk.getZ()));
+
+            if (chunkChanges != null)
+            {
+                removedChanges.add(chunkChanges);
+            }
+
+            return worldChanges.isEmpty() ? null : worldChanges;
+        });
+
+        if (removedChanges.isEmpty())
+        {
+            return;
+        }
+
+        List<PendingChange> changes = removedChanges.get(0);
+
+        // Applied changes must not be replayed after restart.
+        this.requestSave();
+
+        BiomeWriter writer = new CellBiomeWriter();
+
+        for (PendingChange change : changes)
+        {
+            BiomeUpdateTask.ChunkData data = change.chunkData();
+
+            // Greenhouses could be changed while chunk was not loaded.
+            GreenhouseMask greenhouseMask = new GreenhouseMask(this.addon.getAddonManager().getGreenhouseAreas(world,
+                new BoundingBox(data.minX(), data.minY(), data.minZ(),
+                    data.maxX() + 1, data.maxY() + 1, data.maxZ() + 1)));
+
+            BiomeUpdateTask.writeChunkBiome(writer,
+                chunk,
+                data,
+                change.biome(),
+                greenhouseMask.getFilter(data.chunkX(), data.chunkZ(), data.minY(), data.maxY()));
+        }
+    }
+
+
+    /**
+     * Returns number of chunks that are waiting for biome change.
+     *
+     * @return the number of chunks
+     */
+    public int size()
+    {
+        return this.pendingChanges.values().stream().mapToInt(Map::size).sum();
+    }
+
+
+    /**
+     * This method schedules asynchronous save of pending changes. Changes that are done before the save starts
+     * are written together.
+     */
+    private void requestSave()
+    {
+        if (!this.saveScheduled.compareAndSet(false, true))
+        {
+            // Save is already scheduled.
+            return;
+        }
+
+        if (this.addon.getPlugin().isEnabled())
+        {
+            Bukkit.getScheduler().runTaskAsynchronously(this.addon.getPlugin(), this::save);
+        }
+        else
+        {
+            this.save();
+        }
+    }
+
+
+    /**
+     * This method saves all pending changes in the addon data folder. File is replaced only after all changes are
+     * written, so a crash during save does not corrupt previously stored changes.
+     */
+    public synchronized void save()
+    {
+        this.saveScheduled.set(false);
+
+        if (this.pendingChanges.isEmpty())
+        {
+            if (this.file.exists() && !this.file.delete())
+            {
+                this.addon.logWarning("Could not remove " + this.file.getName());
+            }
+
+            return;
+        }
+
+        if (!this.file.getParentFile().exists() && !this.file.getParentFile().mkdirs())
+        {
+            this.addon.logError("Could not create " + this.file.getParentFile().getName() + " folder.");
+            return;
+        }
+
+        File tempFile = new File(this.file.getParentFile(), this.file.getName() + ".tmp");
+
+        try (DataOutputStream output = new DataOutputStream(
+            new BufferedOutputStream(new FileOutputStream(tempFile))))
+        {
+            output.writeInt(FILE_VERSION);
+            output.writeInt(this.pendingChanges.size());
+
+            for (Map.Entry<UUID, Map<Long, List<PendingChange>>> worldEntry : this.pendingChanges.entrySet())
+            {
+                output.writeLong(worldEntry.getKey().getMostSignificantBits());
+                output.writeLong(worldEntry.getKey().getLeastSignificantBits());
+
+                List<PendingChange> changes = new ArrayList<>();
+                worldEntry.getValue().values().forEach(changes::addAll);
+
+                output.writeInt(changes.size());
+
+                for (PendingChange change : changes)
+                {
+                    BiomeUpdateTask.ChunkData data = change.chunkData();
+
+                    output.writeInt(data.chunkX());
+                    output.writeInt(data.chunkZ());
+                    output.writeInt(data.minX());
+                    output.writeInt(data.minY());
+                    output.writeInt(data.minZ());
+                    output.writeInt(data.maxX());
+                    output.writeInt(data.maxY());
+                    output.writeInt(data.maxZ());
+                    output.writeUTF(change.biome().name());
+                }
+            }
+        }
+        catch (Exception e)
+        {
+            this.addon.logError("Could not save pending biome changes: " + e.getMessage());
+            return;
+        }
+
+        try
+        {
+            Files.move(tempFile.toPath(), this.file.toPath(),
+                StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+        }
+        catch (Exception e)
+        {
+            this.addon.logError("Could not save pending biome changes: " + e.getMessage());
+        }
+    }
+
+
+    /**
+     * This method loads pending changes from the addon data folder.
+     */
+    public void load()
+    {
+        if (!this.file.exists())
+        {
+            return;
+        }
+
+        Map<String, Biome> biomeMap = Utils.getBiomeNameMap();
+
+        try (DataInputStream input = new DataInputStream(
+            new BufferedInputStream(new FileInputStream(this.file))))
+        {
+            if (input.readInt() != FILE_VERSION)
+            {
+                this.addon.logWarning("Unknown pending biome changes format. Changes are skipped.");
+                return;
+            }
+
+            for (int worldCount = input.readInt(); worldCount > 0; worldCount--)
+            {
+                UUID worldId = new UUID(input.readLong(), input.readLong());
+                Map<Long, List<PendingChange>> worldChanges =
+                    this.pendingChanges.computeIfAbsent(worldId, id -> new ConcurrentHashMap<>());
+
+                for (int count = input.readInt(); count > 0; count--)
+                {
+                    BiomeUpdateTask.ChunkData data = new BiomeUpdateTask.ChunkData(input.readInt(),
+                        input.readInt(),
+                        input.readInt(),
+                        input.readInt(),
+                        input.readInt(),
+                        input.readInt(),
+                        input.readInt(),
+                        input.readInt());
+                    Biome biome = biomeMap.get(input.readUTF());
+
+                    if (biome != null)
+                    {
+                        worldChanges.merge(chunkKey(data.chunkX(), data.chunkZ()),
+                            List.of(new PendingChange(data, biome)),
+                            (oldChanges, newChanges) ->
+                            {
+                                List<PendingChange> changes = new ArrayList<>(oldChanges);
+                                changes.addAll(newChanges);
+                                return changes;
+                            });
+                    }
+                }
+            }
+
+            this.addon.log("Loaded " + this.size() + " chunks with pending biome changes.");
+        }
+        catch (Exception e)
+        {
+            this.addon.logError("Could not load pending biome changes: " + e.getMessage());
+        }
+    }
+
+
+    /**
+     * Returns if the new area covers the whole old area.
+     *
+     * @param newArea the new area
+     * @param oldArea the old area
+     * @return {@code true} if old area is inside new area.
+     */
+    private static boolean covers(BiomeUpdateTask.ChunkData newArea, BiomeUpdateTask.ChunkData oldArea)
+    {
+        return newArea.minX() <= oldArea.minX() && newArea.maxX() >= oldArea.maxX() &&
+            newArea.minY() <= oldArea.minY() && newArea.maxY() >= oldArea.maxY() &&
+            newArea.minZ() <= oldArea.minZ() && newArea.maxZ() >= oldArea.maxZ();
+    }
+
+
+    /**
+     * Returns single long value that identifies chunk.
+     *
+     * @param chunkX Chunk X coordinate.
+     * @param chunkZ Chunk Z coordinate.
+     * @return the chunk key
+     */
+    static long chunkKey(int chunkX, int chunkZ)
+    {
+        return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+    }
+
+
+// ---------------------------------------------------------------------
+// Section: Classes
+// ---------------------------------------------------------------------
+
+
+    /**
+     * The record that contains area and biome that must be applied when chunk is loaded.
+     */
+    private record PendingChange(BiomeUpdateTask.ChunkData chunkData, Biome biome)
+    {
+    }
+
+
+// ---------------------------------------------------------------------
+// Section: Variables
+// ---------------------------------------------------------------------
+
+
+    /**
+     * Instance of the addon.
+     */
+    private final BiomesAddon addon;
+
+    /**
+     * Map that links world id with chunk keys and their pending changes.
+     */
+    private final Map<UUID, Map<Long, List<PendingChange>>> pendingChanges;
+
+    /**
+     * File where pending changes are stored between restarts.
+     */
+    private final File file;
+
+    /**
+     * Indicates that asynchronous save is scheduled, but not started yet.
+     */
+    private final AtomicBoolean saveScheduled;
+
+    /**
+     * Version of the stored file format.
+     */
+    private static final int FILE_VERSION = 1;
+}
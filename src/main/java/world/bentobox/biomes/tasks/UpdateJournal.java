@@ -0,0 +1,459 @@
+///
+// Created by BONNe
+// Copyright - 2022
+///
+
+package world.bentobox.biomes.tasks;
+
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.bukkit.util.BlockVector;
+
+import world.bentobox.biomes.BiomesAddon;
+
+
+/**
+ * This class stores queued biome update tasks and their completed chunks in an append-only file, so unfinished
+ * tasks could be resumed after server restart or crash. All file operations are done in a separate thread.
+ */
+public class UpdateJournal
+{
+    /**
+     * Instantiates a new Update journal.
+     *
+     * @param addon the addon
+     */
+    public UpdateJournal(BiomesAddon addon)
+    {
+        this.addon = addon;
+        this.file = new File(addon.getDataFolder(), "update-journal.dat");
+        this.openTasks = new HashSet<>();
+        this.executor = Executors.newSingleThreadExecutor(runnable ->
+        {
+            Thread thread = new Thread(runnable, "Biomes Update Journal");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+
+// ---------------------------------------------------------------------
+// Section: Methods
+// ---------------------------------------------------------------------
+
+
+    /**
+     * This method records that given task is added to the queue.
+     *
+     * @param task the task
+     */
+    public void logTask(BiomeUpdateTask task)
+    {
+        if (task.getBiomesObject().getUniqueId() == null || task.getMinCoordinate() == null ||
+            task.getMaxCoordinate() == null)
+        {
+            // Task cannot be restored, f.e. default biome change on owner change.
+            return;
+        }
+
+        UUID taskId = task.getTaskId();
+        UUID userId = task.getUser().isPlayer() ? task.getUser().getUniqueId() : null;
+        String biomeId = task.getBiomesObject().getUniqueId();
+        String worldName = task.getWorld().getName();
+        BlockVector min = task.getMinCoordinate();
+        BlockVector max = task.getMaxCoordinate();
+
+        this.execute(() ->
+        {
+            this.openTasks.add(taskId);
+
+            this.write(output ->
+            {
+                output.writeByte(TASK);
+                writeUUID(output, taskId);
+                output.writeBoolean(userId != null);
+
+                if (userId != null)
+                {
+                    writeUUID(output, userId);
+                }
+
+                output.writeUTF(biomeId);
+                output.writeUTF(worldName);
+                output.writeInt(min.getBlockX());
+                output.writeInt(min.getBlockY());
+                output.writeInt(min.getBlockZ());
+                output.writeInt(max.getBlockX());
+                output.writeInt(max.getBlockY());
+                output.writeInt(max.getBlockZ());
+            });
+        });
+    }
+
+
+    /**
+     * This method records that given chunk is processed by the task. Chunks of tasks that are not logged, f.e.
+     * restore tasks, are skipped, as they cannot be resumed.
+     *
+     * @param taskId the task id
+     * @param chunkX the chunk x
+     * @param chunkZ the chunk z
+     */
+    public void logChunk(UUID taskId, int chunkX, int chunkZ)
+    {
+        this.execute(() ->
+        {
+            if (!this.openTasks.contains(taskId))
+            {
+                // Task does not have TASK record.
+                return;
+            }
+
+            this.write(output ->
+            {
+                output.writeByte(CHUNK);
+                writeUUID(output, taskId);
+                output.writeInt(chunkX);
+                output.writeInt(chunkZ);
+            });
+        });
+    }
+
+
+    /**
+     * This method records that task is completed. When there are no open tasks, journal file is cleared.
+     *
+     * @param taskId the task id
+     */
+    public void logDone(UUID taskId)
+    {
+        this.execute(() ->
+        {
+            if (!this.openTasks.remove(taskId))
+            {
+                // Task does not have TASK record.
+                return;
+            }
+
+            if (this.openTasks.isEmpty())
+            {
+                // Nothing to resume, so journal can be started from scratch.
+                this.closeOutput();
+
+                if (this.file.exists() && !this.file.delete())
+                {
+                    this.addon.logWarning("Could not clear " + this.file.getName());
+                }
+            }
+            else
+            {
+                this.write(output ->
+                {
+                    output.writeByte(DONE);
+                    writeUUID(output, taskId);
+                });
+            }
+        });
+    }
+
+
+    /**
+     * This method reads the journal and returns all tasks that were not completed. Journal file is removed, as
+     * returned tasks are expected to be added to the queue again. Must be called before any other record is logged.
+     *
+     * @return List of unfinished task entries.
+     */
+    public List<Entry> readUnfinished()
+    {
+        if (!this.file.exists())
+        {
+            return List.of();
+        }
+
+        Map<UUID, Entry> entries = new LinkedHashMap<>();
+
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(this.file))))
+        {
+            while (true)
+            {
+                byte type;
+
+                try
+                {
+                    type = input.readByte();
+                }
+                catch (EOFException e)
+                {
+                    break;
+                }
+
+                UUID taskId = readUUID(input);
+
+                switch (type)
+                {
+                    case TASK -> {
+                        UUID userId = input.readBoolean() ? readUUID(input) : null;
+                        String biomeId = input.readUTF();
+                        String worldName = input.readUTF();
+                        BlockVector min = new BlockVector(input.readInt(), input.readInt(), input.readInt());
+                        BlockVector max = new BlockVector(input.readInt(), input.readInt(), input.readInt());
+
+                        entries.put(taskId, new Entry(taskId, userId, biomeId, worldName, min, max, new HashSet<>()));
+                    }
+                    case CHUNK -> {
+                        long chunkKey = PendingBiomeChanges.chunkKey(input.readInt(), input.readInt());
+                        Entry entry = entries.get(taskId);
+
+                        if (entry != null)
+                        {
+                            entry.completedChunks().add(chunkKey);
+                        }
+                    }
+                    case DONE -> entries.remove(taskId);
+                    default -> throw new IOException("Unknown record type " + type);
+                }
+            }
+        }
+        catch (EOFException e)
+        {
+            // Last record was not fully written before crash.
+            this.addon.logWarning("Update journal ends with incomplete record. It is skipped.");
+        }
+        catch (Exception e)
+        {
+            this.addon.logError("Could not read update journal: " + e.getMessage());
+        }
+
+        if (!this.file.delete())
+        {
+            this.addon.logWarning("Could not clear " + this.file.getName());
+        }
+
+        return new ArrayList<>(entries.values());
+    }
+
+
+    /**
+     * This method writes all waiting records and stops journal thread.
+     */
+    public void close()
+    {
+        this.executor.execute(this::closeOutput);
+        this.executor.shutdown();
+
+        try
+        {
+            if (!this.executor.awaitTermination(10, TimeUnit.SECONDS))
+            {
+                this.addon.logWarning("Update journal was not closed in time.");
+            }
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+
+    /**
+     * This method runs given action in journal thread. Records that are logged after journal is closed are
+     * skipped with a warning, as their tasks are resumed from the last stored state.
+     *
+     * @param action the action
+     */
+    private void execute(Runnable action)
+    {
+        try
+        {
+            this.executor.execute(action);
+        }
+        catch (RejectedExecutionException e)
+        {
+            this.addon.logWarning("Update journal is closed. Record is skipped.");
+        }
+    }
+
+
+    /**
+     * This method writes single record in the journal. Must be called from journal thread.
+     *
+     * @param record the record writer
+     */
+    private void write(RecordWriter record)
+    {
+        try
+        {
+            if (this.output == null)
+            {
+                this.output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(this.file, true)));
+            }
+
+            record.write(this.output);
+            this.output.flush();
+        }
+        catch (IOException e)
+        {
+            this.addon.logError("Could not write update journal: " + e.getMessage());
+            this.closeOutput();
+        }
+    }
+
+
+    /**
+     * This method closes journal output stream. Must be called from journal thread.
+     */
+    private void closeOutput()
+    {
+        if (this.output == null)
+        {
+            return;
+        }
+
+        try
+        {
+            this.output.close();
+        }
+        catch (IOException e)
+        {
+            this.addon.logError("Could not close update journal: " + e.getMessage());
+        }
+
+        this.output = null;
+    }
+
+
+    /**
+     * Write UUID in output stream.
+     *
+     * @param output the output
+     * @param uuid the uuid
+     * @throws IOException the io exception
+     */
+    private static void writeUUID(DataOutputStream output, UUID uuid) throws IOException
+    {
+        output.writeLong(uuid.getMostSignificantBits());
+        output.writeLong(uuid.getLeastSignificantBits());
+    }
+
+
+    /**
+     * Read UUID from input stream.
+     *
+     * @param input the input
+     * @return the uuid
+     * @throws IOException the io exception
+     */
+    private static UUID readUUID(DataInputStream input) throws IOException
+    {
+        return new UUID(input.readLong(), input.readLong());
+    }
+
+
+// ---------------------------------------------------------------------
+// Section: Classes
+// ---------------------------------------------------------------------
+
+
+    /**
+     * The record that contains data about unfinished task.
+     *
+     * @param taskId Id of the task.
+     * @param userId Id of the user who started the task or {@code null} if it was not a player.
+     * @param biomeId Id of the biome object.
+     * @param worldName Name of the world.
+     * @param minCoordinate Minimal coordinate.
+     * @param maxCoordinate Maximal coordinate.
+     * @param completedChunks Keys of chunks that are already processed.
+     */
+    public record Entry(UUID taskId,
+                        UUID userId,
+                        String biomeId,
+                        String worldName,
+                        BlockVector minCoordinate,
+                        BlockVector maxCoordinate,
+                        Set<Long> completedChunks)
+    {
+    }
+
+
+    /**
+     * Writes a single journal record.
+     */
+    @FunctionalInterface
+    private interface RecordWriter
+    {
+        /**
+         * Write record in output stream.
+         *
+         * @param output the output
+         * @throws IOException the io exception
+         */
+        void write(DataOutputStream output) throws IOException;
+    }
+
+
+// ---------------------------------------------------------------------
+// Section: Variables
+// ---------------------------------------------------------------------
+
+
+    /**
+     * Instance of the addon.
+     */
+    private final BiomesAddon addon;
+
+    /**
+     * Journal file.
+     */
+    private final File file;
+
+    /**
+     * Ids of tasks that are not completed. Accessed only from journal thread.
+     */
+    private final Set<UUID> openTasks;
+
+    /**
+     * Executor that writes the journal.
+     */
+    private final ExecutorService executor;
+
+    /**
+     * Output stream of the journal. Accessed only from journal thread.
+     */
+    private DataOutputStream output;
+
+    /**
+     * Task record type.
+     */
+    private static final byte TASK = 1;
+
+    /**
+     * Completed chunk record type.
+     */
+    private static final byte CHUNK = 2;
+
+    /**
+     * Completed task record type.
+     */
+    private static final byte DONE = 3;
+}
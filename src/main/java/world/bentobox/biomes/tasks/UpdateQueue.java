@@ -8,14 +8,22 @@ package world.bentobox.biomes.tasks;
 
 
 import org.bukkit.Bukkit;
+import org.bukkit.World;
 import org.bukkit.scheduler.BukkitTask;
 import java.util.*;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
 
 import world.bentobox.bentobox.BentoBox;
+import world.bentobox.bentobox.api.user.User;
 import world.bentobox.biomes.BiomesAddon;
+import world.bentobox.biomes.config.Settings;
+import world.bentobox.biomes.database.objects.BiomesObject;
 
 
 /**
@@ -32,10 +40,20 @@ public class UpdateQueue
     {
         this.addon = addon;
         this.processQueue = new ConcurrentLinkedQueue<>();
-        this.processStartMap = new HashMap<>();
+        this.processStartMap = new ConcurrentHashMap<>();
+
+        this.pendingChanges = new PendingBiomeChanges(addon);
+        this.pendingChanges.load();
+        this.refreshQueue = new ChunkRefreshQueue(addon);
+        this.journal = new UpdateJournal(addon);
+        this.controller = new ConcurrencyController(addon);
+        this.estimator = new ChunkTimeEstimator();
+        this.snapshotStore = new BiomeSnapshotStore(addon);
+        this.snapshotStore.load();
 
         this.timer = new AtomicLong(0);
         this.counter = new AtomicLong(0);
+        this.asyncChanges = new AtomicInteger(0);
 
         this.task = Bukkit.getScheduler().runTaskTimer(BentoBox.getInstance(), () ->
         {
@@ -45,23 +63,26 @@ public class UpdateQueue
                 return;
             }
 
-            // Complete the current to Process queue first
-            if (!this.processStartMap.isEmpty() || this.processQueue.isEmpty())
+            this.currentTick++;
+            this.refreshQueue.processRefreshes();
+            this.controller.onTick();
+            this.checkRunningTasks();
+
+            long tickBudget = this.addon.getSettings().getUpdateTickBudget();
+
+            if (tickBudget > 0 && this.addon.getSettings().isAdaptiveConcurrency())
             {
-                return;
+                this.processTickBudget(this.controller.getTickBudget(), this.controller.getChunkAllowance());
             }
-
-            for (int i = 0; i < this.addon.getSettings().getConcurrentBiomeUpdates() && !this.processQueue.isEmpty();
-                i++)
+            else if (tickBudget > 0)
             {
-                BiomeUpdateTask updateTask = this.processQueue.poll();
-                // Notify starting
-                updateTask.notifyStarting();
-                this.processStartMap.put(updateTask, System.currentTimeMillis());
-                // Start the scanning of an area chunks
-                updateTask.processBiomeChange(this);
+                this.processTickBudget(tickBudget, Integer.MAX_VALUE);
+            }
+            else if (this.tickCounter++ % 10 == 0)
+            {
+                this.processSingleChunks();
             }
-        }, 1L, 10L);
+        }, 1L, 1L);
     }
 
 
@@ -70,6 +91,266 @@ public class UpdateQueue
 // ---------------------------------------------------------------------
 
 
+    /**
+     * This method starts waiting tasks and processes chunks of all running tasks in a round-robin order till the
+     * given time budget or chunk allowance is used.
+     *
+     * @param tickBudget the number of milliseconds that can be used in this tick.
+     * @param chunkAllowance the number of chunks that can be processed in this tick.
+     */
+    private void processTickBudget(long tickBudget, int chunkAllowance)
+    {
+        while (this.processStartMap.size() < this.getConcurrentLimit())
+        {
+            BiomeUpdateTask updateTask = this.pollNextTask();
+
+            if (updateTask == null)
+            {
+                // Queued tasks wait for earlier tasks that change the same chunks.
+                break;
+            }
+
+            this.startTask(updateTask);
+        }
+
+        if (this.processStartMap.isEmpty())
+        {
+            return;
+        }
+
+        final long startTime = System.nanoTime();
+        final long deadline = startTime + tickBudget * 1_000_000L;
+        int processedChunks = 0;
+        List<BiomeUpdateTask> runningTasks = new ArrayList<>(this.processStartMap.keySet());
+
+        if (this.addon.getSettings().getSchedulingPolicy() == Settings.SchedulingPolicy.SHORTEST_FIRST)
+        {
+            // Smaller tasks are served first, so they are not cut off by the deadline.
+            runningTasks.sort(Comparator.comparingInt(BiomeUpdateTask::getRemainingChunks));
+        }
+
+        // Each group gets one chunk per round. Tasks inside the group take turns.
+        Map<String, List<BiomeUpdateTask>> groups = new LinkedHashMap<>();
+        runningTasks.forEach(updateTask ->
+            groups.computeIfAbsent(this.getGroupKey(updateTask), key -> new ArrayList<>()).add(updateTask));
+
+        boolean working = true;
+
+        for (int round = 0; working && processedChunks < chunkAllowance && System.nanoTime() < deadline; round++)
+        {
+            working = false;
+
+            for (List<BiomeUpdateTask> group : groups.values())
+            {
+                for (int i = 0; i < group.size(); i++)
+                {
+                    if (group.get((round + i) % group.size()).processNextChunk())
+                    {
+                        working = true;
+                        processedChunks++;
+                        break;
+                    }
+                }
+
+                if (processedChunks >= chunkAllowance || System.nanoTime() >= deadline)
+                {
+                    break;
+                }
+            }
+        }
+
+        this.controller.recordChunks(System.nanoTime() - startTime, processedChunks);
+
+        runningTasks.forEach(updateTask -> updateTask.checkCompletion(this));
+    }
+
+
+    /**
+     * This method starts waiting tasks which process one chunk at the time till whole task is finished.
+     */
+    private void processSingleChunks()
+    {
+        // Complete the current to Process queue first
+        if (!this.processStartMap.isEmpty() || this.processQueue.isEmpty())
+        {
+            return;
+        }
+
+        for (int i = 0; i < this.getConcurrentLimit() && !this.processQueue.isEmpty(); i++)
+        {
+            BiomeUpdateTask updateTask = this.pollNextTask();
+
+            if (this.startTask(updateTask))
+            {
+                // Start the scanning of an area chunks
+                updateTask.processBiomeChange(this);
+            }
+        }
+    }
+
+
+    /**
+     * This method moves given task to running tasks.
+     *
+     * @param updateTask the update task
+     * @return {@code true} if task was started.
+     */
+    private boolean startTask(BiomeUpdateTask updateTask)
+    {
+        if (updateTask == null || !updateTask.start())
+        {
+            // Task was completed while it waited in the queue.
+            return false;
+        }
+
+        this.processStartMap.put(updateTask, updateTask.getStartTime());
+        // Notify starting
+        updateTask.notifyStarting();
+        return true;
+    }
+
+
+    /**
+     * This method removes completed tasks from running tasks and completes tasks that are timed out, so they
+     * would not block the queue when their chunk processing stops responding.
+     */
+    private void checkRunningTasks()
+    {
+        this.processStartMap.keySet().forEach(updateTask ->
+        {
+            if (updateTask.getState().isFinal())
+            {
+                this.processStartMap.remove(updateTask);
+            }
+            else if (updateTask.isTimedOut())
+            {
+                updateTask.timeOut(this);
+            }
+        });
+    }
+
+
+    /**
+     * Returns number of biome changes that can run at the same time.
+     *
+     * @return the concurrent limit
+     */
+    private int getConcurrentLimit()
+    {
+        if (this.addon.getSettings().isAdaptiveConcurrency() && this.addon.getSettings().getUpdateTickBudget() > 0)
+        {
+            return Math.min(this.controller.getConcurrentTasks(), this.addon.getSettings().getConcurrentBiomeUpdates());
+        }
+
+        return this.addon.getSettings().getConcurrentBiomeUpdates();
+    }
+
+
+    /**
+     * This method removes and returns the next task that should be started, based on scheduling policy.
+     * Task can be started only if it does not share chunks with running tasks or tasks that were submitted
+     * before it, so the last submitted biome always stays in the world.
+     *
+     * @return the next task or {@code null} if no task can be started.
+     */
+    private BiomeUpdateTask pollNextTask()
+    {
+        List<BiomeUpdateTask> eligibleTasks = new ArrayList<>();
+        List<BiomeUpdateTask> previousTasks = new ArrayList<>(this.processStartMap.keySet());
+
+        for (BiomeUpdateTask updateTask : this.processQueue)
+        {
+            if (previousTasks.stream().noneMatch(updateTask::overlaps))
+            {
+                eligibleTasks.add(updateTask);
+            }
+
+            previousTasks.add(updateTask);
+        }
+
+        Optional<BiomeUpdateTask> nextTask = switch (this.addon.getSettings().getSchedulingPolicy())
+            {
+                case FIFO -> eligibleTasks.stream().findFirst();
+                case SHORTEST_FIRST -> eligibleTasks.stream().
+                    min(Comparator.comparingInt(BiomeUpdateTask::getRemainingChunks));
+                case ROUND_ROBIN_ISLAND, ROUND_ROBIN_WORLD -> {
+                    // Start a task from the group that has the least running tasks.
+                    Map<String, Long> runningGroups = this.processStartMap.keySet().stream().
+                        collect(Collectors.groupingBy(this::getGroupKey, Collectors.counting()));
+
+                    yield eligibleTasks.stream().
+                        min(Comparator.comparingLong(task -> runningGroups.getOrDefault(this.getGroupKey(task), 0L)));
+                }
+            };
+
+        nextTask.ifPresent(this.processQueue::remove);
+        return nextTask.orElse(null);
+    }
+
+
+    /**
+     * Returns key of the group which shares chunks with other groups equally.
+     *
+     * @param task the task
+     * @return the group key
+     */
+    private String getGroupKey(BiomeUpdateTask task)
+    {
+        return switch (this.addon.getSettings().getSchedulingPolicy())
+            {
+                case ROUND_ROBIN_ISLAND -> task.getIslandId() == null ?
+                    task.getWorld().getName() : task.getIslandId();
+                case ROUND_ROBIN_WORLD -> task.getWorld().getName();
+                default -> task.getTaskId().toString();
+            };
+    }
+
+
+    /**
+     * This method adds tasks that were not finished before server stopped back to the queue. Only chunks that
+     * were not processed are updated.
+     */
+    public void resumeTasks()
+    {
+        for (UpdateJournal.Entry entry : this.journal.readUnfinished())
+        {
+            World world = Bukkit.getWorld(entry.worldName());
+            BiomesObject biomesObject = this.addon.getAddonManager().getBiomeByID(entry.biomeId());
+
+            if (world == null || biomesObject == null)
+            {
+                this.addon.logWarning("Could not resume biome change to " + entry.biomeId() +
+                    " in world " + entry.worldName());
+                continue;
+            }
+
+            User user = entry.userId() == null ?
+                User.getInstance(Bukkit.getConsoleSender()) :
+                User.getInstance(entry.userId());
+
+            BiomeUpdateTask task = new BiomeUpdateTask(this.addon, user, biomesObject);
+            task.setTaskId(entry.taskId());
+            task.setWorld(world);
+            task.setMinCoordinate(entry.minCoordinate());
+            task.setMaxCoordinate(entry.maxCoordinate());
+            this.addon.getIslands().getIslandAt(entry.minCoordinate().toLocation(world)).
+                ifPresent(island -> task.setIslandId(island.getUniqueId()));
+            task.updateChunkQueue();
+            task.removeCompletedChunks(entry.completedChunks());
+
+            this.addUpdateTask(task).thenAccept(result ->
+                this.addon.log("Resumed biome change to " + biomesObject.getFriendlyName() +
+                    " from min=" + entry.minCoordinate() +
+                    " max=" + entry.maxCoordinate() +
+                    " finished with result " + result));
+
+            // Journal is cleared after reading, so processed chunks must be stored again.
+            entry.completedChunks().forEach(chunkKey ->
+                this.journal.logChunk(entry.taskId(), (int) (chunkKey >> 32), (int) chunkKey.longValue()));
+        }
+    }
+
+
     /**
      * This class stops current executing queue.
      */
@@ -79,6 +360,39 @@ public class UpdateQueue
     }
 
 
+    /**
+     * This method stops the queue when addon is disabled. Chunks that are changed asynchronously are finished
+     * before journal is closed, so their records are not lost. Unfinished tasks are resumed after restart.
+     */
+    public void shutdown()
+    {
+        this.cancel();
+
+        final long deadline = System.currentTimeMillis() + SHUTDOWN_TIMEOUT;
+
+        while (this.asyncChanges.get() > 0 && System.currentTimeMillis() < deadline)
+        {
+            try
+            {
+                Thread.sleep(10);
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+
+        if (this.asyncChanges.get() > 0)
+        {
+            this.addon.logWarning("Biome changes in " + this.asyncChanges.get() + " chunks were not finished in time.");
+        }
+
+        this.pendingChanges.save();
+        this.journal.close();
+    }
+
+
     /**
      * Gets process queue.
      *
@@ -101,6 +415,17 @@ public class UpdateQueue
     }
 
 
+    /**
+     * Gets counter of chunks which biome is being changed outside the main thread.
+     *
+     * @return the async changes counter
+     */
+    AtomicInteger getAsyncChanges()
+    {
+        return this.asyncChanges;
+    }
+
+
     /**
      * Gets task.
      *
@@ -112,6 +437,72 @@ public class UpdateQueue
     }
 
 
+    /**
+     * Gets biome changes that waits for chunk loading.
+     *
+     * @return the pending changes
+     */
+    public PendingBiomeChanges getPendingChanges()
+    {
+        return this.pendingChanges;
+    }
+
+
+    /**
+     * Gets queue of chunks that must be refreshed for players.
+     *
+     * @return the refresh queue
+     */
+    public ChunkRefreshQueue getRefreshQueue()
+    {
+        return this.refreshQueue;
+    }
+
+
+    /**
+     * Gets journal of queued tasks.
+     *
+     * @return the journal
+     */
+    public UpdateJournal getJournal()
+    {
+        return this.journal;
+    }
+
+
+    /**
+     * Gets concurrency controller.
+     *
+     * @return the controller
+     */
+    public ConcurrencyController getController()
+    {
+        return this.controller;
+    }
+
+
+    /**
+     * Gets biome snapshot store.
+     *
+     * @return the snapshot store
+     */
+    public BiomeSnapshotStore getSnapshotStore()
+    {
+        return this.snapshotStore;
+    }
+
+
+    /**
+     * Gets chunk time estimator.
+     *
+     * @return the estimator
+     */
+    public ChunkTimeEstimator getEstimator()
+    {
+        return this.estimator;
+    }
+
+
     /**
      * Add update task completion stage.
      *
@@ -120,16 +511,167 @@ public class UpdateQueue
      */
     public CompletionStage<Result> addUpdateTask(BiomeUpdateTask task)
     {
-        if (this.processStartMap.size() >= this.addon.getSettings().getConcurrentBiomeUpdates())
+        if (this.processStartMap.size() >= this.getConcurrentLimit())
         {
             task.notifyWaiting();
         }
 
+        this.journal.logTask(task);
+        task.getResult().thenAccept(result -> this.journal.logDone(task.getTaskId()));
+
+        if (task.getSnapshot() != null)
+        {
+            // Even partial changes are stored, so they could be reverted.
+            task.getResult().thenAccept(result -> this.snapshotStore.add(task.getSnapshot()));
+        }
+
+        this.supersedeQueuedTasks(task);
         this.processQueue.add(task);
         return task.getResult();
     }
 
 
+    /**
+     * This method removes chunks from queued tasks that will be overwritten by given task. Tasks that have nothing
+     * left to process are completed with {@link Result#SUPERSEDED}. Paid cost is returned for removed part.
+     *
+     * @param task the newer task
+     */
+    private void supersedeQueuedTasks(BiomeUpdateTask task)
+    {
+        if (task.getMinCoordinate() == null || task.getMaxCoordinate() == null)
+        {
+            return;
+        }
+
+        Iterator<BiomeUpdateTask> iterator = this.processQueue.iterator();
+
+        while (iterator.hasNext())
+        {
+            BiomeUpdateTask queuedTask = iterator.next();
+
+            if (!task.getWorld().equals(queuedTask.getWorld()))
+            {
+                continue;
+            }
+
+            List<BiomeUpdateTask.ChunkData> removedChunks =
+                queuedTask.removeCoveredChunks(task.getMinCoordinate(), task.getMaxCoordinate());
+
+            if (removedChunks.isEmpty())
+            {
+                continue;
+            }
+
+            // Removed chunks must not be processed after restart as well.
+            removedChunks.forEach(chunkData ->
+                this.journal.logChunk(queuedTask.getTaskId(), chunkData.chunkX(), chunkData.chunkZ()));
+
+            if (queuedTask.getNumberOfChunks() == 0)
+            {
+                iterator.remove();
+                queuedTask.supersede(this);
+            }
+            else
+            {
+                queuedTask.refund(1.0 * removedChunks.size() / queuedTask.getInitialNumberOfChunks());
+            }
+        }
+    }
+
+
+    /**
+     * This method cancels task with given id. Task can be queued or running.
+     *
+     * @param taskId the task id
+     * @return {@code true} if task was cancelled.
+     */
+    public boolean cancelTask(UUID taskId)
+    {
+        return this.cancelTasks(task -> taskId.equals(task.getTaskId())) > 0;
+    }
+
+
+    /**
+     * This method cancels all queued and running tasks for given island.
+     *
+     * @param islandId the island id
+     * @return the number of cancelled tasks
+     */
+    public int cancelIslandTasks(String islandId)
+    {
+        return this.cancelTasks(task -> islandId.equals(task.getIslandId()));
+    }
+
+
+    /**
+     * This method cancels all queued and running tasks in given world.
+     *
+     * @param world the world
+     * @return the number of cancelled tasks
+     */
+    public int cancelWorldTasks(World world)
+    {
+        return this.cancelTasks(task -> world.equals(task.getWorld()));
+    }
+
+
+    /**
+     * This method cancels all queued and running tasks that matches given filter. Queued tasks are removed from the
+     * queue, running tasks stop processing chunks. Journal entries are closed via task result.
+     *
+     * @param filter the task filter
+     * @return the number of cancelled tasks
+     */
+    private int cancelTasks(Predicate<BiomeUpdateTask> filter)
+    {
+        int cancelled = 0;
+
+        Iterator<BiomeUpdateTask> iterator = this.processQueue.iterator();
+
+        while (iterator.hasNext())
+        {
+            BiomeUpdateTask task = iterator.next();
+
+            if (filter.test(task))
+            {
+                iterator.remove();
+
+                if (task.cancel(this))
+                {
+                    cancelled++;
+                }
+            }
+        }
+
+        for (BiomeUpdateTask task : new ArrayList<>(this.processStartMap.keySet()))
+        {
+            if (filter.test(task) && task.cancel(this))
+            {
+                cancelled++;
+            }
+        }
+
+        return cancelled;
+    }
+
+
+    /**
+     * Returns progress of all running and queued tasks. Running tasks are first.
+     *
+     * @return the list of task progress snapshots
+     */
+    public List<BiomeUpdateTask.Progress> getProgress()
+    {
+        List<BiomeUpdateTask> updateTaskList = new ArrayList<>(this.processStartMap.keySet());
+        updateTaskList.addAll(this.processQueue);
+
+        return updateTaskList.stream().
+            map(BiomeUpdateTask::getProgress).
+            collect(Collectors.toList());
+    }
+
+
     /**
      * Updates timer for changing biome.
      *
@@ -144,30 +686,103 @@ public class UpdateQueue
 
 
     /**
-     * Get the average time it takes to run a level check
+     * Get the estimated time till all queued and running tasks are finished.
      *
-     * @return the average time in seconds
+     * @return the estimated time in seconds
      */
     public int getQueueTime()
     {
-        double average = this.getChunkTime();
+        int time = (int) (this.getQueueSnapshot().totalTime() / 1000);
+        return time == 0 ? 1 : time;
+    }
+
+
+    /**
+     * Get the estimated time till given task is finished, based on scheduling policy.
+     *
+     * @param task the task that is added to the queue
+     * @return the estimated time in seconds
+     */
+    public int getQueueTime(BiomeUpdateTask task)
+    {
+        QueueSnapshot snapshot = this.getQueueSnapshot();
 
-        int time = 0;
+        final double taskTime = task.getEstimatedTime();
+        TaskEstimate ownEstimate = snapshot.estimates().get(task);
 
-        List<BiomeUpdateTask> updateTaskList = new ArrayList<>(this.processQueue);
-        updateTaskList.addAll(this.processStartMap.keySet());
+        double time = taskTime;
 
-        for (BiomeUpdateTask biomeUpdateTask : updateTaskList)
+        switch (this.addon.getSettings().getSchedulingPolicy())
         {
-            time += biomeUpdateTask.getNumberOfChunks() * average;
+            case FIFO -> time += snapshot.totalTime() - (ownEstimate == null ? 0 : ownEstimate.time());
+            case SHORTEST_FIRST ->
+                // Tasks that are larger are processed only until this task is finished.
+                time += snapshot.estimates().values().stream().
+                    filter(estimate -> estimate.task() != task).
+                    mapToDouble(estimate -> Math.min(estimate.time(), taskTime)).
+                    sum();
+            case ROUND_ROBIN_ISLAND, ROUND_ROBIN_WORLD -> {
+                String taskGroup = this.getGroupKey(task);
+
+                Map<String, Double> groupTimes = snapshot.estimates().values().stream().
+                    filter(estimate -> estimate.task() != task).
+                    collect(Collectors.groupingBy(TaskEstimate::group,
+                        Collectors.summingDouble(TaskEstimate::time)));
+
+                // Own group is processed in order, other groups get equal share till this task is finished.
+                time += groupTimes.getOrDefault(taskGroup, 0.0);
+                final double ownTime = time;
+
+                time += groupTimes.entrySet().stream().
+                    filter(entry -> !entry.getKey().equals(taskGroup)).
+                    mapToDouble(entry -> Math.min(entry.getValue(), ownTime)).
+                    sum();
+            }
         }
 
-        return time == 0 ? 1 : time;
+        int seconds = (int) (time / 1000);
+        return seconds == 0 ? 1 : seconds;
+    }
+
+
+    /**
+     * Returns estimates of all queued and running tasks. Estimates are calculated once per tick, so messages for many
+     * tasks do not need to walk the whole queue each time.
+     *
+     * @return the queue snapshot
+     */
+    private QueueSnapshot getQueueSnapshot()
+    {
+        QueueSnapshot snapshot = this.queueSnapshot;
+
+        if (snapshot == null || snapshot.tick() != this.currentTick)
+        {
+            Map<BiomeUpdateTask, TaskEstimate> estimates = new LinkedHashMap<>();
+            double totalTime = 0;
+
+            List<BiomeUpdateTask> updateTaskList = new ArrayList<>(this.processStartMap.keySet());
+            updateTaskList.addAll(this.processQueue);
+
+            for (BiomeUpdateTask updateTask : updateTaskList)
+            {
+                TaskEstimate estimate = new TaskEstimate(updateTask,
+                    this.getGroupKey(updateTask),
+                    updateTask.getEstimatedTime());
+
+                estimates.put(updateTask, estimate);
+                totalTime += estimate.time();
+            }
+
+            snapshot = new QueueSnapshot(this.currentTick, estimates, totalTime);
+            this.queueSnapshot = snapshot;
+        }
+
+        return snapshot;
     }
 
 
     /**
-     * Gets average time per processing a chunk.
+     * Gets average time per processing a chunk, measured from the start till the end of finished tasks.
      *
      * @return the chunk time
      */
@@ -198,7 +813,44 @@ public class UpdateQueue
         /**
          * Result if change failed
          */
-        FAILED
+        FAILED,
+        /**
+         * Result if change was replaced by a newer change before it was processed
+         */
+        SUPERSEDED,
+        /**
+         * Result if change was cancelled
+         */
+        CANCELLED
+    }
+
+
+// ---------------------------------------------------------------------
+// Section: Classes
+// ---------------------------------------------------------------------
+
+
+    /**
+     * Estimated time of a single task.
+     *
+     * @param task the task
+     * @param group scheduling group of the task
+     * @param time estimated time in milliseconds
+     */
+    private record TaskEstimate(BiomeUpdateTask task, String group, double time)
+    {
+    }
+
+
+    /**
+     * Estimates of all tasks calculated in a single tick.
+     *
+     * @param tick tick when snapshot was created
+     * @param estimates estimates of queued and running tasks
+     * @param totalTime sum of all estimates in milliseconds
+     */
+    private record QueueSnapshot(long tick, Map<BiomeUpdateTask, TaskEstimate> estimates, double totalTime)
+    {
     }
 
 
@@ -218,7 +870,7 @@ public class UpdateQueue
     private final Queue<BiomeUpdateTask> processQueue;
 
     /**
-     * This map links processed element with a time when it was started.
+     * This map links running tasks with a time when they were started. Tasks remove themselves on completion.
      */
     private final Map<BiomeUpdateTask, Long> processStartMap;
 
@@ -227,6 +879,36 @@ public class UpdateQueue
      */
     private final BukkitTask task;
 
+    /**
+     * Biome changes for chunks that were not loaded during biome update.
+     */
+    private final PendingBiomeChanges pendingChanges;
+
+    /**
+     * Chunks that must be resent to players after biome change.
+     */
+    private final ChunkRefreshQueue refreshQueue;
+
+    /**
+     * Journal that allows to resume unfinished tasks.
+     */
+    private final UpdateJournal journal;
+
+    /**
+     * Controller that adjusts limits based on server tick time.
+     */
+    private final ConcurrencyController controller;
+
+    /**
+     * Estimator of chunk processing time.
+     */
+    private final ChunkTimeEstimator estimator;
+
+    /**
+     * Store of biome snapshots for undo.
+     */
+    private final BiomeSnapshotStore snapshotStore;
+
     /**
      * Stores how long on average biome change took per each chunk.
      */
@@ -236,4 +918,29 @@ public class UpdateQueue
      * Stores how many chunks were updated.
      */
     private final AtomicLong counter;
+
+    /**
+     * Number of chunks which biome is being changed outside the main thread.
+     */
+    private final AtomicInteger asyncChanges;
+
+    /**
+     * Counts ticks for processing tasks one chunk at the time.
+     */
+    private long tickCounter;
+
+    /**
+     * Number of ticks since queue was started.
+     */
+    private volatile long currentTick;
+
+    /**
+     * Task estimates of the current tick.
+     */
+    private volatile QueueSnapshot queueSnapshot;
+
+    /**
+     * Time in milliseconds how long shutdown waits for asynchronous chunk changes.
+     */
+    private static final long SHUTDOWN_TIMEOUT = 10_000L;
 }
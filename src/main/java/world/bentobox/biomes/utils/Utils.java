@@ -7,7 +7,7 @@ package world.bentobox.biomes.utils;
 
 
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.bukkit.*;
 import org.bukkit.block.Biome;
@@ -135,7 +135,8 @@ public class Utils
 
     /**
      * This method gets string value of given permission prefix. If user does not have given permission or it have all
-     * (*), then return default value.
+     * (*), then return default value. Resolved values are cached for each player, as effective permission list can be
+     * very large.
      *
      * @param user User who's permission should be checked.
      * @param permissionPrefix Prefix that need to be found.
@@ -146,36 +147,86 @@ public class Utils
     {
         if (user.isPlayer())
         {
-            if (permissionPrefix.endsWith("."))
+            Map<String, CachedPermission> userCache =
+                PERMISSION_CACHE.computeIfAbsent(user.getUniqueId(), uuid -> new ConcurrentHashMap<>());
+
+            CachedPermission cachedPermission = userCache.get(permissionPrefix);
+            long currentTime = System.currentTimeMillis();
+
+            if (cachedPermission == null || currentTime - cachedPermission.time() > PERMISSION_CACHE_TIME)
             {
-                permissionPrefix = permissionPrefix.substring(0, permissionPrefix.length() - 1);
+                cachedPermission = new CachedPermission(Utils.resolvePermissionValue(user, permissionPrefix),
+                    currentTime);
+                userCache.put(permissionPrefix, cachedPermission);
             }
 
-            String permPrefix = permissionPrefix + ".";
+            if (cachedPermission.value() != null)
+            {
+                return cachedPermission.value();
+            }
+        }
 
-            List<String> permissions = user.getEffectivePermissions().stream().
-                map(PermissionAttachmentInfo::getPermission).
-                filter(permission -> permission.startsWith(permPrefix)).
-                collect(Collectors.toList());
+        return defaultValue;
+    }
 
-            for (String permission : permissions)
-            {
-                if (permission.contains(permPrefix + "*"))
-                {
-                    // * means all. So continue to search more specific.
-                    continue;
-                }
 
-                String[] parts = permission.split(permPrefix);
+    /**
+     * This method searches user effective permissions for the value that follows given permission prefix.
+     *
+     * @param user User who's permission should be checked.
+     * @param permissionPrefix Prefix that need to be found.
+     * @return String value that follows permissionPrefix or {@code null} if it is not found.
+     */
+    @Nullable
+    private static String resolvePermissionValue(User user, String permissionPrefix)
+    {
+        if (permissionPrefix.endsWith("."))
+        {
+            permissionPrefix = permissionPrefix.substring(0, permissionPrefix.length() - 1);
+        }
+
+        String permPrefix = permissionPrefix + ".";
 
-                if (parts.length > 1)
-                {
-                    return parts[1];
-                }
+        for (PermissionAttachmentInfo permissionInfo : user.getEffectivePermissions())
+        {
+            String permission = permissionInfo.getPermission();
+
+            if (!permission.startsWith(permPrefix) || permission.contains(permPrefix + "*"))
+            {
+                // * means all. So continue to search more specific.
+                continue;
+            }
+
+            if (permission.length() > permPrefix.length())
+            {
+                return permission.substring(permPrefix.length());
             }
         }
 
-        return defaultValue;
+        return null;
+    }
+
+
+    /**
+     * This method removes cached permission values of given player. It must be called when player permissions
+     * could be changed, f.e. when player joins or leaves the server.
+     *
+     * @param uniqueId Player unique id.
+     */
+    public static void clearPermissionCache(UUID uniqueId)
+    {
+        PERMISSION_CACHE.remove(uniqueId);
+    }
+
+
+    /**
+     * This method removes all cached permission values and update mode permissions. It must be called when biomes
+     * are imported or edited, and when addon is disabled, so static caches do not keep removed biomes.
+     */
+    public static void clearPermissionCache()
+    {
+        PERMISSION_CACHE.clear();
+        UPDATE_MODE_PERMISSIONS.clear();
     }
 
 
@@ -226,11 +277,32 @@ public class Utils
         Settings.UpdateMode updateMode,
         String biomeId)
     {
-        String updateModePermission =
-            permissionPrefix + "biomes.set." + updateMode.name().toLowerCase();
+        Map<String, String> modePermissions = UPDATE_MODE_PERMISSIONS.
+            computeIfAbsent(permissionPrefix, prefix -> new ConcurrentHashMap<>()).
+            computeIfAbsent(updateMode, mode -> new ConcurrentHashMap<>());
 
-        return user.hasPermission(updateModePermission + ".*") ||
-            user.hasPermission(updateModePermission + "." + biomeId.toLowerCase());
+        return user.hasPermission(Utils.getUpdateModePermission(modePermissions, permissionPrefix, updateMode, "*")) ||
+            user.hasPermission(Utils.getUpdateModePermission(modePermissions, permissionPrefix, updateMode, biomeId));
+    }
+
+
+    /**
+     * This method returns permission string for given update mode and biome from the cache, or builds it if it is
+     * not cached yet.
+     *
+     * @param modePermissions Cached permissions of update mode.
+     * @param permissionPrefix String that represents gamemode permission prefix.
+     * @param updateMode UpdateMode that will be performed in biome change.
+     * @param biomeId BiomeObject id or * for all biomes.
+     * @return Permission string.
+     */
+    private static String getUpdateModePermission(Map<String, String> modePermissions,
+        String permissionPrefix,
+        Settings.UpdateMode updateMode,
+        String biomeId)
+    {
+        return modePermissions.computeIfAbsent(biomeId, id ->
+            permissionPrefix + "biomes.set." + updateMode.name().toLowerCase() + "." + id.toLowerCase());
     }
 
 
@@ -1206,4 +1278,40 @@ public class Utils
             "[type]", prettifyObject(itemType, user),
             "[meta]", meta);
     }
+
+
+// ---------------------------------------------------------------------
+// Section: Classes
+// ---------------------------------------------------------------------
+
+
+    /**
+     * Permission value that was resolved for a player.
+     *
+     * @param value Resolved value or {@code null} if player does not have the permission.
+     * @param time Time when value was resolved.
+     */
+    private record CachedPermission(@Nullable String value, long time) {}
+
+
+// ---------------------------------------------------------------------
+// Section: Variables
+// ---------------------------------------------------------------------
+
+
+    /**
+     * Map that links player with resolved permission values by permission prefix.
+     */
+    private static final Map<UUID, Map<String, CachedPermission>> PERMISSION_CACHE = new ConcurrentHashMap<>();
+
+    /**
+     * Map that links permission prefix and update mode with permission strings by biome id.
+     */
+    private static final Map<String, Map<Settings.UpdateMode, Map<String, String>>> UPDATE_MODE_PERMISSIONS =
+        new ConcurrentHashMap<>();
+
+    /**
+     * Time in milliseconds for how long resolved permission value is valid.
+     */
+    private static final long PERMISSION_CACHE_TIME = 60_000L;
 }
@@ -0,0 +1,153 @@
+///
+// Created by BONNe
+// Copyright - 2022
+///
+
+package world.bentobox.biomes.database.adapters;
+
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import org.junit.Test;
+
+
+/**
+ * Tests for {@link BiomeIdSet}.
+ */
+public class BiomeIdSetTest
+{
+    @Test
+    public void testEmptySet()
+    {
+        BiomeIdSet biomeIdSet = new BiomeIdSet();
+
+        assertTrue(biomeIdSet.isEmpty());
+        assertEquals(0, biomeIdSet.size());
+        assertFalse(biomeIdSet.iterator().hasNext());
+    }
+
+
+    @Test
+    public void testAddAndContains()
+    {
+        BiomeIdSet biomeIdSet = new BiomeIdSet();
+
+        assertTrue(biomeIdSet.add("set_add_desert"));
+        assertFalse(biomeIdSet.add("set_add_desert"));
+        assertTrue(biomeIdSet.add("set_add_forest"));
+
+        assertEquals(2, biomeIdSet.size());
+        assertTrue(biomeIdSet.contains("set_add_desert"));
+        assertTrue(biomeIdSet.contains("set_add_forest"));
+        assertFalse(biomeIdSet.contains("set_add_unknown"));
+        assertFalse(biomeIdSet.contains(null));
+        assertFalse(biomeIdSet.contains(42));
+    }
+
+
+    @Test
+    public void testContainsDoesNotRegisterId()
+    {
+        BiomeIdSet biomeIdSet = new BiomeIdSet();
+
+        assertFalse(biomeIdSet.contains("set_never_added"));
+        assertEquals(-1, BiomeIdRegistry.findOrdinal("set_never_added"));
+    }
+
+
+    @Test
+    public void testRemove()
+    {
+        BiomeIdSet biomeIdSet = new BiomeIdSet(List.of("set_remove_a", "set_remove_b"));
+
+        assertTrue(biomeIdSet.remove("set_remove_a"));
+        assertFalse(biomeIdSet.remove("set_remove_a"));
+        assertFalse(biomeIdSet.remove("set_remove_unknown"));
+
+        assertEquals(Set.of("set_remove_b"), biomeIdSet);
+    }
+
+
+    @Test
+    public void testClear()
+    {
+        BiomeIdSet biomeIdSet = new BiomeIdSet(List.of("set_clear_a", "set_clear_b"));
+        biomeIdSet.clear();
+
+        assertTrue(biomeIdSet.isEmpty());
+        assertFalse(biomeIdSet.contains("set_clear_a"));
+    }
+
+
+    @Test
+    public void testIteratorReturnsAllIds()
+    {
+        Set<String> biomeIds = Set.of("set_iterate_a", "set_iterate_b", "set_iterate_c");
+        BiomeIdSet biomeIdSet = new BiomeIdSet(biomeIds);
+
+        Set<String> iterated = new HashSet<>();
+        biomeIdSet.forEach(iterated::add);
+
+        assertEquals(biomeIds, iterated);
+    }
+
+
+    @Test(expected = NoSuchElementException.class)
+    public void testIteratorAfterLastElement()
+    {
+        Iterator<String> iterator = new BiomeIdSet(List.of("set_iterator_end")).iterator();
+
+        iterator.next();
+        iterator.next();
+    }
+
+
+    @Test
+    public void testIteratorRemove()
+    {
+        BiomeIdSet biomeIdSet = new BiomeIdSet(List.of("set_iterator_remove_a", "set_iterator_remove_b"));
+
+        biomeIdSet.removeIf("set_iterator_remove_a"::equals);
+
+        assertEquals(Set.of("set_iterator_remove_b"), biomeIdSet);
+    }
+
+
+    @Test(expected = IllegalStateException.class)
+    public void testIteratorRemoveBeforeNext()
+    {
+        new BiomeIdSet(List.of("set_iterator_illegal")).iterator().remove();
+    }
+
+
+    @Test
+    public void testEqualsOtherSets()
+    {
+        BiomeIdSet biomeIdSet = new BiomeIdSet(List.of("set_equals_a", "set_equals_b"));
+
+        assertEquals(Set.of("set_equals_a", "set_equals_b"), biomeIdSet);
+        assertEquals(new HashSet<>(List.of("set_equals_a", "set_equals_b")).hashCode(), biomeIdSet.hashCode());
+        assertNotEquals(Set.of("set_equals_a"), biomeIdSet);
+    }
+
+
+    @Test
+    public void testSetsShareRegistry()
+    {
+        BiomeIdSet first = new BiomeIdSet(List.of("set_shared"));
+        BiomeIdSet second = new BiomeIdSet(List.of("set_shared"));
+
+        assertEquals(first, second);
+        assertEquals(BiomeIdRegistry.getOrdinal("set_shared"), BiomeIdRegistry.findOrdinal("set_shared"));
+        assertEquals("set_shared", BiomeIdRegistry.getId(BiomeIdRegistry.findOrdinal("set_shared")));
+    }
+}
@@ -0,0 +1,91 @@
+///
+// Created by BONNe
+// Copyright - 2022
+///
+
+package world.bentobox.biomes.database.adapters;
+
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonParser;
+
+
+/**
+ * Tests for {@link BiomeIdSetTypeAdapter}.
+ */
+public class BiomeIdSetTypeAdapterTest
+{
+    @Test
+    public void testWriteArray()
+    {
+        String json = this.adapter.toJson(new BiomeIdSet(List.of("adapter_write_a", "adapter_write_b")));
+
+        JsonArray array = JsonParser.parseString(json).getAsJsonArray();
+
+        assertEquals(2, array.size());
+        assertEquals(Set.of("adapter_write_a", "adapter_write_b"),
+            Set.of(array.get(0).getAsString(), array.get(1).getAsString()));
+    }
+
+
+    @Test
+    public void testWriteNull()
+    {
+        assertEquals("null", this.adapter.toJson(null));
+    }
+
+
+    @Test
+    public void testWriteEmpty()
+    {
+        assertEquals("[]", this.adapter.toJson(new BiomeIdSet()));
+    }
+
+
+    @Test
+    public void testReadArray() throws IOException
+    {
+        BiomeIdSet biomeIdSet = this.adapter.fromJson("[\"adapter_read_a\",\"adapter_read_b\",\"adapter_read_a\"]");
+
+        assertEquals(Set.of("adapter_read_a", "adapter_read_b"), biomeIdSet);
+    }
+
+
+    @Test
+    public void testReadNullIsEmptySet() throws IOException
+    {
+        assertTrue(this.adapter.fromJson("null").isEmpty());
+    }
+
+
+    @Test
+    public void testRoundTrip() throws IOException
+    {
+        BiomeIdSet biomeIdSet = new BiomeIdSet(List.of("adapter_round_a", "adapter_round_b", "adapter_round_c"));
+
+        assertEquals(biomeIdSet, this.adapter.fromJson(this.adapter.toJson(biomeIdSet)));
+    }
+
+
+    @Test
+    public void testStringSetFormatIsCompatible() throws IOException
+    {
+        // Data that was stored as a string set must be readable.
+        String json = new Gson().toJson(Set.of("adapter_legacy"));
+
+        assertEquals(Set.of("adapter_legacy"), this.adapter.fromJson(json));
+    }
+
+
+    private final BiomeIdSetTypeAdapter adapter = new BiomeIdSetTypeAdapter();
+}
@@ -0,0 +1,142 @@
+///
+// Created by BONNe
+// Copyright - 2022
+///
+
+package world.bentobox.biomes.managers;
+
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import world.bentobox.biomes.database.objects.BiomesObject;
+
+
+/**
+ * Tests for {@link BiomesAddonManager.LevelIndex}.
+ */
+public class LevelIndexTest
+{
+    @Before
+    public void setUp()
+    {
+        this.level0 = this.createBiome("level0", 0, Collections.emptySet());
+        this.level10 = this.createBiome("level10", 10, Set.of("biomes.desert"));
+        this.level10b = this.createBiome("level10b", 10, Collections.emptySet());
+        this.level50 = this.createBiome("level50", 50, Collections.emptySet());
+
+        // Biomes are given out of order, index must sort them.
+        this.levelIndex = BiomesAddonManager.LevelIndex.create(List.of(this.level50,
+            this.level10,
+            this.level0,
+            this.level10b));
+    }
+
+
+    @Test
+    public void testLevelsAreSorted()
+    {
+        long[] levels = this.levelIndex.levels();
+
+        for (int i = 1; i < levels.length; i++)
+        {
+            assertTrue(levels[i - 1] <= levels[i]);
+        }
+
+        assertEquals(4, levels.length);
+    }
+
+
+    @Test
+    public void testPermissionBiomes()
+    {
+        assertEquals(List.of(this.level10), this.levelIndex.permissionBiomes());
+    }
+
+
+    @Test
+    public void testUpperBound()
+    {
+        assertEquals(0, this.levelIndex.upperBound(-1));
+        assertEquals(1, this.levelIndex.upperBound(0));
+        assertEquals(1, this.levelIndex.upperBound(9));
+        assertEquals(3, this.levelIndex.upperBound(10));
+        assertEquals(3, this.levelIndex.upperBound(49));
+        assertEquals(4, this.levelIndex.upperBound(50));
+        assertEquals(4, this.levelIndex.upperBound(Long.MAX_VALUE));
+    }
+
+
+    @Test
+    public void testBiomesBetweenLevels()
+    {
+        assertEquals(Set.of(this.level10, this.level10b), this.getBiomes(0, 10));
+        assertEquals(Set.of(this.level10, this.level10b, this.level50), this.getBiomes(5, 100));
+        assertEquals(Set.of(this.level0, this.level10, this.level10b, this.level50),
+            this.getBiomes(Long.MIN_VALUE, Long.MAX_VALUE));
+    }
+
+
+    @Test
+    public void testLowerLevelIsExclusive()
+    {
+        assertEquals(Set.of(this.level50), this.getBiomes(10, 50));
+        assertEquals(Collections.emptySet(), this.getBiomes(50, 100));
+    }
+
+
+    @Test
+    public void testNoBiomesWhenLevelDoesNotGrow()
+    {
+        assertEquals(Collections.emptySet(), this.getBiomes(10, 10));
+        assertEquals(Collections.emptySet(), this.getBiomes(50, 0));
+    }
+
+
+    @Test
+    public void testEmptyIndex()
+    {
+        BiomesAddonManager.LevelIndex emptyIndex = BiomesAddonManager.LevelIndex.create(Collections.emptyList());
+
+        assertEquals(0, emptyIndex.upperBound(100));
+        assertEquals(0, emptyIndex.getBiomes(0, 100).count());
+        assertTrue(emptyIndex.permissionBiomes().isEmpty());
+    }
+
+
+    private Set<BiomesObject> getBiomes(long fromLevel, long toLevel)
+    {
+        return this.levelIndex.getBiomes(fromLevel, toLevel).collect(Collectors.toSet());
+    }
+
+
+    private BiomesObject createBiome(String uniqueId, long unlockLevel, Set<String> permissions)
+    {
+        BiomesObject biome = mock(BiomesObject.class);
+        when(biome.getUniqueId()).thenReturn(uniqueId);
+        when(biome.getUnlockLevel()).thenReturn(unlockLevel);
+        when(biome.getUnlockPermissions()).thenReturn(permissions);
+        return biome;
+    }
+
+
+    private BiomesObject level0;
+
+    private BiomesObject level10;
+
+    private BiomesObject level10b;
+
+    private BiomesObject level50;
+
+    private BiomesAddonManager.LevelIndex levelIndex;
+}
@@ -0,0 +1,295 @@
+///
+// Created by BONNe
+// Copyright - 2022
+///
+
+package world.bentobox.biomes.tasks;
+
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import org.bukkit.Chunk;
+import org.bukkit.World;
+import org.bukkit.block.Biome;
+import org.bukkit.util.BlockVector;
+import org.junit.Before;
+import org.junit.Test;
+
+
+/**
+ * Tests for {@link BiomeSnapshot} encoding and storage format.
+ */
+public class BiomeSnapshotTest
+{
+    @Before
+    public void setUp()
+    {
+        this.world = mock(World.class);
+        when(this.world.getMinHeight()).thenReturn(-64);
+        when(this.world.getMaxHeight()).thenReturn(320);
+
+        this.chunk = mock(Chunk.class);
+        when(this.chunk.getWorld()).thenReturn(this.world);
+
+        this.writtenBiomes = new HashMap<>();
+    }
+
+
+    @Test
+    public void testEncodeDecodeEmpty()
+    {
+        assertArrayEquals(new short[0], BiomeSnapshot.decode(BiomeSnapshot.encode(new short[0]), 0));
+    }
+
+
+    @Test
+    public void testEncodeDecodeSingleRun()
+    {
+        short[] cells = new short[1024];
+
+        byte[] runs = BiomeSnapshot.encode(cells);
+
+        // Run length 1024 needs two bytes and palette index one byte.
+        assertEquals(3, runs.length);
+        assertArrayEquals(cells, BiomeSnapshot.decode(runs, cells.length));
+    }
+
+
+    @Test
+    public void testEncodeDecodeMixedRuns()
+    {
+        short[] cells = new short[2000];
+
+        for (int i = 0; i < cells.length; i++)
+        {
+            // Short and long runs, and palette indexes that need more than one byte.
+            cells[i] = (short) (i < 1000 ? i % 3 : (i / 150) * 100);
+        }
+
+        assertArrayEquals(cells, BiomeSnapshot.decode(BiomeSnapshot.encode(cells), cells.length));
+    }
+
+
+    @Test
+    public void testDecodeIgnoresCellsOutsideSize()
+    {
+        short[] cells = {1, 1, 1, 2, 2};
+
+        assertArrayEquals(new short[] {1, 1, 1}, BiomeSnapshot.decode(BiomeSnapshot.encode(cells), 3));
+    }
+
+
+    @Test
+    public void testHeaderRoundTrip() throws IOException
+    {
+        UUID taskId = UUID.randomUUID();
+        BiomeSnapshot snapshot = new BiomeSnapshot(taskId, "island", "world", 12345L);
+
+        BiomeSnapshot header = BiomeSnapshot.read(this.toInput(snapshot), false);
+
+        assertEquals(taskId, header.getTaskId());
+        assertEquals("island", header.getIslandId());
+        assertEquals("world", header.getWorldName());
+        assertEquals(12345L, header.getTime());
+        assertTrue(header.isEmpty());
+    }
+
+
+    @Test
+    public void testHeaderWithoutIsland() throws IOException
+    {
+        BiomeSnapshot snapshot = new BiomeSnapshot(UUID.randomUUID(), null, "world", 0L);
+
+        assertNull(BiomeSnapshot.read(this.toInput(snapshot), false).getIslandId());
+    }
+
+
+    @Test(expected = IOException.class)
+    public void testUnknownVersion() throws IOException
+    {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        new DataOutputStream(bytes).writeInt(99);
+
+        BiomeSnapshot.read(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())), false);
+    }
+
+
+    @Test
+    public void testCaptureAndRestore() throws IOException
+    {
+        when(this.world.getBiome(anyInt(), anyInt(), anyInt())).thenAnswer(invocation ->
+            getOriginalBiome(invocation.getArgument(0), invocation.getArgument(1), invocation.getArgument(2)));
+
+        BiomeUpdateTask.ChunkData chunkData = new BiomeUpdateTask.ChunkData(1, -2, 16, -10, -32, 31, 40, -17);
+
+        BiomeSnapshot snapshot = new BiomeSnapshot(UUID.randomUUID(), "island", "world", 0L);
+        snapshot.capture(this.chunk, chunkData);
+
+        assertEquals(new BlockVector(16, -12, -32), snapshot.getMinCoordinate());
+        assertEquals(new BlockVector(31, 43, -17), snapshot.getMaxCoordinate());
+
+        BiomeSnapshot loaded = BiomeSnapshot.read(this.toInput(snapshot), true);
+        assertTrue(loaded.getUnknownBiomes().isEmpty());
+
+        // Biome change wrote plains in the whole area.
+        when(this.world.getBiome(anyInt(), anyInt(), anyInt())).thenReturn(Biome.PLAINS);
+
+        int written = loaded.restore(this::recordBiomes, this.chunk, chunkData, BiomeWriter.CellFilter.ALL);
+
+        int expected = 0;
+
+        for (int y = -12; y <= 40; y += 4)
+        {
+            for (int z = -32; z <= -17; z += 4)
+            {
+                for (int x = 16; x <= 31; x += 4)
+                {
+                    Biome original = getOriginalBiome(x, y, z);
+
+                    if (original != Biome.PLAINS)
+                    {
+                        expected++;
+                        assertEquals(original, this.writtenBiomes.get(new BlockVector(x, y, z)));
+                    }
+                }
+            }
+        }
+
+        assertEquals(expected, written);
+        assertEquals(expected, this.writtenBiomes.size());
+    }
+
+
+    @Test
+    public void testUnknownBiomesAreSkipped() throws IOException
+    {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream output = new DataOutputStream(bytes);
+
+        output.writeInt(1);
+        output.writeLong(0L);
+        output.writeLong(1L);
+        output.writeUTF("island");
+        output.writeUTF("world");
+        output.writeLong(0L);
+        output.writeInt(1);
+
+        // Chunk 0, 0 with two cells on z axis.
+        output.writeInt(0);
+        output.writeInt(0);
+        output.writeInt(0);
+        output.writeInt(0);
+        output.writeInt(0);
+        output.writeInt(0);
+        output.writeInt(0);
+        output.writeInt(1);
+
+        output.writeShort(2);
+        output.writeUTF("NOT_A_BIOME");
+        output.writeUTF(Biome.DESERT.name());
+
+        byte[] runs = BiomeSnapshot.encode(new short[] {0, 1});
+        output.writeInt(runs.length);
+        output.write(runs);
+        output.flush();
+
+        BiomeSnapshot snapshot =
+            BiomeSnapshot.read(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())), true);
+
+        assertEquals(Set.of("NOT_A_BIOME"), snapshot.getUnknownBiomes());
+
+        when(this.world.getBiome(anyInt(), anyInt(), anyInt())).thenReturn(Biome.PLAINS);
+
+        int written = snapshot.restore(this::recordBiomes,
+            this.chunk,
+            new BiomeUpdateTask.ChunkData(0, 0, 0, 0, 0, 15, 15, 15),
+            BiomeWriter.CellFilter.ALL);
+
+        assertEquals(1, written);
+        assertEquals(Map.of(new BlockVector(0, 0, 4), Biome.DESERT), this.writtenBiomes);
+    }
+
+
+    /**
+     * Biome writer that stores written biomes by cell corner.
+     */
+    private int recordBiomes(Chunk chunk,
+        int minX, int minY, int minZ,
+        int maxX, int maxY, int maxZ,
+        Biome biome,
+        BiomeWriter.CellFilter filter)
+    {
+        int written = 0;
+
+        for (int y = minY; y <= maxY; y += 4)
+        {
+            for (int z = minZ; z <= maxZ; z += 4)
+            {
+                for (int x = minX; x <= maxX; x += 4)
+                {
+                    if (filter.test(x, y, z))
+                    {
+                        this.writtenBiomes.put(new BlockVector(x, y, z), biome);
+                        written++;
+                    }
+                }
+            }
+        }
+
+        return written;
+    }
+
+
+    /**
+     * Returns biome pattern that was in the world before change.
+     */
+    private static Biome getOriginalBiome(int x, int y, int z)
+    {
+        return switch (Math.floorMod((x >> 2) + (y >> 2) * 3 + (z >> 2), 4))
+            {
+                case 0 -> Biome.DESERT;
+                case 1 -> Biome.FOREST;
+                case 2 -> Biome.PLAINS;
+                default -> Biome.TAIGA;
+            };
+    }
+
+
+    /**
+     * Writes snapshot and returns input for reading it back.
+     */
+    private DataInputStream toInput(BiomeSnapshot snapshot) throws IOException
+    {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        try (DataOutputStream output = new DataOutputStream(bytes))
+        {
+            snapshot.write(output);
+        }
+
+        return new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+    }
+
+
+    private World world;
+
+    private Chunk chunk;
+
+    private Map<BlockVector, Biome> writtenBiomes;
+}
@@ -0,0 +1,157 @@
+///
+// Created by BONNe
+// Copyright - 2022
+///
+
+package world.bentobox.biomes.tasks;
+
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.bukkit.World;
+import org.junit.Before;
+import org.junit.Test;
+
+import world.bentobox.biomes.config.Settings;
+
+
+/**
+ * Tests for {@link ChunkTimeEstimator}.
+ */
+public class ChunkTimeEstimatorTest
+{
+    @Before
+    public void setUp()
+    {
+        this.world = mock(World.class);
+        when(this.world.getName()).thenReturn("world");
+
+        this.otherWorld = mock(World.class);
+        when(this.otherWorld.getName()).thenReturn("other");
+
+        this.estimator = new ChunkTimeEstimator();
+    }
+
+
+    @Test
+    public void testDefaultTimeWithoutMeasurements()
+    {
+        assertEquals(5.0, this.estimator.getChunkTime(this.world, Settings.UpdateMode.ISLAND, true, 5.0), DELTA);
+        assertEquals(5.0, this.estimator.getChunkTimeP95(this.world, Settings.UpdateMode.ISLAND, true, 5.0), DELTA);
+    }
+
+
+    @Test
+    public void testFirstMeasurementIsAverage()
+    {
+        this.estimator.record(this.world, Settings.UpdateMode.ISLAND, true, 2_000_000L);
+
+        assertEquals(2.0, this.estimator.getChunkTime(this.world, Settings.UpdateMode.ISLAND, true, 5.0), DELTA);
+    }
+
+
+    @Test
+    public void testAverageMovesToNewMeasurements()
+    {
+        this.estimator.record(this.world, Settings.UpdateMode.ISLAND, true, 1_000_000L);
+        this.estimator.record(this.world, Settings.UpdateMode.ISLAND, true, 3_000_000L);
+
+        // 1 + (3 - 1) * 0.05
+        assertEquals(1.1, this.estimator.getChunkTime(this.world, Settings.UpdateMode.ISLAND, true, 5.0), DELTA);
+    }
+
+
+    @Test
+    public void testFallbackToWorldMeasurements()
+    {
+        this.estimator.record(this.world, Settings.UpdateMode.ISLAND, true, 2_000_000L);
+
+        assertEquals(2.0, this.estimator.getChunkTime(this.world, Settings.UpdateMode.CHUNK, true, 5.0), DELTA);
+        assertEquals(2.0, this.estimator.getChunkTime(this.world, null, true, 5.0), DELTA);
+    }
+
+
+    @Test
+    public void testLoadedChunksAreSeparated()
+    {
+        this.estimator.record(this.world, Settings.UpdateMode.ISLAND, true, 2_000_000L);
+        this.estimator.record(this.world, Settings.UpdateMode.ISLAND, false, 40_000_000L);
+
+        assertEquals(2.0, this.estimator.getChunkTime(this.world, Settings.UpdateMode.ISLAND, true, 5.0), DELTA);
+        assertEquals(40.0, this.estimator.getChunkTime(this.world, Settings.UpdateMode.ISLAND, false, 5.0), DELTA);
+    }
+
+
+    @Test
+    public void testFallbackToAllWorlds()
+    {
+        this.estimator.record(this.world, Settings.UpdateMode.ISLAND, true, 2_000_000L);
+
+        assertEquals(2.0, this.estimator.getChunkTime(this.otherWorld, Settings.UpdateMode.ISLAND, true, 5.0), DELTA);
+        assertEquals(5.0, this.estimator.getChunkTime(this.otherWorld, Settings.UpdateMode.ISLAND, false, 5.0), DELTA);
+    }
+
+
+    @Test
+    public void testWorldMeasurementsArePreferred()
+    {
+        this.estimator.record(this.world, Settings.UpdateMode.ISLAND, true, 2_000_000L);
+        this.estimator.record(this.otherWorld, Settings.UpdateMode.ISLAND, true, 8_000_000L);
+
+        assertEquals(2.0, this.estimator.getChunkTime(this.world, Settings.UpdateMode.ISLAND, true, 5.0), DELTA);
+        assertEquals(8.0, this.estimator.getChunkTime(this.otherWorld, Settings.UpdateMode.ISLAND, true, 5.0), DELTA);
+    }
+
+
+    @Test
+    public void testPercentile()
+    {
+        for (int i = 0; i < 95; i++)
+        {
+            this.estimator.record(this.world, Settings.UpdateMode.ISLAND, true, 1_000_000L);
+        }
+
+        for (int i = 0; i < 5; i++)
+        {
+            this.estimator.record(this.world, Settings.UpdateMode.ISLAND, true, 100_000_000L);
+        }
+
+        double p95 = this.estimator.getChunkTimeP95(this.world, Settings.UpdateMode.ISLAND, true, 5.0);
+
+        // Percentile is upper bound of the bucket, which grows by 25%.
+        assertTrue(p95 >= 1.0);
+        assertTrue(p95 < 1.25);
+    }
+
+
+    @Test
+    public void testPercentileOfSlowChunks()
+    {
+        for (int i = 0; i < 90; i++)
+        {
+            this.estimator.record(this.world, Settings.UpdateMode.ISLAND, true, 1_000_000L);
+        }
+
+        for (int i = 0; i < 10; i++)
+        {
+            this.estimator.record(this.world, Settings.UpdateMode.ISLAND, true, 100_000_000L);
+        }
+
+        double p95 = this.estimator.getChunkTimeP95(this.world, Settings.UpdateMode.ISLAND, true, 5.0);
+
+        assertTrue(p95 >= 100.0);
+        assertTrue(p95 < 125.0);
+    }
+
+
+    private World world;
+
+    private World otherWorld;
+
+    private ChunkTimeEstimator estimator;
+
+    private static final double DELTA = 0.000_001;
+}